@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import game.*;
+
+/**
+ * The <code>DrawBenchmarks</code> class times drawing a whole frame, one frame
+ * per operation. The game doesn't move between frames.
+ *
+ * Drawing should allocate nothing once it has warmed up (every sprite scaled
+ * and every string built). Run with <code>-prof gc</code> to check- the
+ * <code>gc.alloc.rate.norm</code> line is bytes allocated per frame.
+ *
+ * @author Caden Erickson
+ * @version December 21, 2021
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DrawBenchmarks
+{
+	// Fields
+	@Param({"10", "100", "1000", "10000"})
+	public int enemies;
+
+	@Param({"1", "10", "50", "200"})
+	public int towers;
+
+	private GameState state;
+	private GameView view;
+	private BufferedImage frame;
+	private Graphics2D g;
+
+	@Setup
+	public void setUp()
+	{
+		state = GameFixtures.buildGame(enemies, towers);
+		view = new GameView(state, false);
+		frame = new BufferedImage(855, 600, BufferedImage.TYPE_INT_RGB);
+		g = frame.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		g.dispose();
+	}
+
+	/** Draws every object into an off-screen image. */
+	@Benchmark
+	public int drawAll()
+	{
+		state.drawAll(g, view);
+		return frame.getRGB(300, 300);
+	}
+
+	/**
+	 * Has the view render a frame- copying the static layer and drawing over it,
+	 * only where objects are drawn.
+	 */
+	@Benchmark
+	public long renderFrame()
+	{
+		view.renderFrame();
+		return view.getFrameAllocation();
+	}
+}
@@ -0,0 +1,174 @@
+package benchmark;
+
+import java.awt.Point;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import game.*;
+import tower.TowerBleach;
+import tower.TowerSpray;
+
+/**
+ * The <code>GameFixtures</code> class builds the games and inputs the
+ * benchmarks run against.
+ *
+ * Games are built from the real resources: enemies are placed along
+ * <code>path.txt</code>, and their types are taken in order from the
+ * <code>enemies*.txt</code> files. Towers are placed at random (but
+ * repeatable) spots that are far enough from the path to be legal.
+ *
+ * @author Caden Erickson
+ * @version December 11, 2021
+ */
+final class GameFixtures
+{
+	// Fields
+	static final long SEED = 1420;
+
+	private GameFixtures() { }
+
+	/**
+	 * Builds a game in play, with the backdrop and menu, the specified number of
+	 * enemies spread along the path, and the specified number of towers.
+	 *
+	 * @param enemies how many enemies to add
+	 * @param towers  how many towers to add
+	 * @return the new game state, with everything added and positioned
+	 */
+	static GameState buildGame(int enemies, int towers)
+	{
+		GameState state = new GameState();
+		Random random = new Random(SEED);
+		int[] lineUp = enemyTypes();
+
+		state.addGameObject(new Backdrop());
+		state.addGameObject(new Menu(state));
+		state.startPlay();
+
+		for (int i = 0; i < enemies; i++)
+		{
+			state.addGameObject(state.getEnemyPool().spawn(lineUp[i % lineUp.length], random.nextDouble()));
+		}
+
+		int i = 0;
+		for (Point p : towerSpots(towers))
+		{
+			// Alternate between spray and bleach towers, the two that attack
+			if (i++ % 2 == 0)
+				state.addGameObject(new TowerSpray(state, p.x, p.y));
+			else
+				state.addGameObject(new TowerBleach(state, p.x, p.y));
+		}
+
+		// A zero-length update moves everything out of the add queue and into place,
+		// and a second one indexes the enemies where they now are. A click off the
+		// field during it takes the towers out of focus, as they would be in play
+		state.updateAll(0.0);
+		state.setMousePosition(-1, -1);
+		state.setMouseClicked();
+		state.latchMouseInput();
+		state.updateAll(0.0);
+		state.consumeMouseClick();
+		return state;
+	}
+
+	/**
+	 * Picks legal tower spots- on the field and more than 40 pixels from the path.
+	 * The same count always gives the same spots.
+	 *
+	 * @param towers how many spots to pick
+	 * @return the list of spots
+	 */
+	static List<Point> towerSpots(int towers)
+	{
+		Path path = ResourceLoader.getLoader().getPath("path.txt");
+		Random random = new Random(SEED);
+		List<Point> spots = new ArrayList<Point>(towers);
+
+		while (spots.size() < towers)
+		{
+			Point p = new Point(25 + random.nextInt(550), 25 + random.nextInt(550));
+			if (path.nearestNodeDistance(p) > 40)
+				spots.add(p);
+		}
+
+		return spots;
+	}
+
+	/**
+	 * Reads the enemy types (1 = pink, 2 = blue, 3 = green) out of every
+	 * enemies*.txt file in the resources folder, in file name order and then in
+	 * the order they appear, skipping spacers, wave markers and anything else
+	 * that isn't an enemy.
+	 *
+	 * @return the enemy types, one after another
+	 */
+	static int[] enemyTypes()
+	{
+		List<Integer> types = new ArrayList<Integer>();
+
+		for (String filename : enemyFiles())
+		{
+			Scanner file = new Scanner(GameFixtures.class.getClassLoader().getResourceAsStream("resources/" + filename));
+			while (file.hasNext())
+			{
+				if (!file.hasNextInt())
+				{
+					file.next();
+					continue;
+				}
+
+				int token = file.nextInt();
+				if (token >= 1 && token <= 3)
+					types.add(token);
+			}
+			file.close();
+		}
+
+		int[] result = new int[types.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = types.get(i);
+		return result;
+	}
+
+	/**
+	 * Lists the enemy generation files in the resources folder, sorted by name.
+	 *
+	 * @return the names of the enemies*.txt files
+	 */
+	private static String[] enemyFiles()
+	{
+		try
+		{
+			File folder = new File(GameFixtures.class.getClassLoader().getResource("resources").toURI());
+			String[] names = folder.list((dir, name) -> name.startsWith("enemies") && name.endsWith(".txt"));
+			Arrays.sort(names);
+			return names;
+		}
+		catch (URISyntaxException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Picks percentages spread evenly at random along the path. The same count
+	 * always gives the same percentages.
+	 *
+	 * @param count how many to pick
+	 * @return the percentages, each between 0.0 and 1.0
+	 */
+	static double[] randomPercents(int count)
+	{
+		Random random = new Random(SEED);
+		double[] percents = new double[count];
+		for (int i = 0; i < count; i++)
+			percents[i] = random.nextDouble();
+		return percents;
+	}
+}
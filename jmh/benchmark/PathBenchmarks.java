@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import game.*;
+
+/**
+ * The <code>PathBenchmarks</code> class times looking up positions along the
+ * path, spread over its whole length, one lookup per operation.
+ *
+ * @author Caden Erickson
+ * @version December 23, 2021
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PathBenchmarks
+{
+	// Fields
+	private Path path;
+	private double[] percents;
+	private int[] indices;		// the nearest baked sample to each percent
+	private double[] xy;
+	private int next;
+
+	@Setup
+	public void setUp()
+	{
+		path = ResourceLoader.getLoader().getPath("path.txt");
+		percents = GameFixtures.randomPercents(4096);
+		indices = new int[percents.length];
+		for (int i = 0; i < indices.length; i++)
+		{
+			indices[i] = path.sampleIndex(percents[i]);
+		}
+		xy = new double[2];
+	}
+
+	@Benchmark
+	public Point getPathPosition()
+	{
+		next = (next + 1) & 4095;
+		return path.getPathPosition(percents[next]);
+	}
+
+	/** Same as above, without building a Point for each lookup. */
+	@Benchmark
+	public double getPathPositionInto()
+	{
+		next = (next + 1) & 4095;
+		path.getPathPositionInto(percents[next], xy);
+		return xy[0] + xy[1];
+	}
+
+	/** Same as above, reading the path's baked samples instead of searching its segments. */
+	@Benchmark
+	public double getBakedPositionInto()
+	{
+		next = (next + 1) & 4095;
+		path.getBakedPositionInto(percents[next], xy);
+		return xy[0] + xy[1];
+	}
+
+	/** Reads the nearest baked sample straight from its index. */
+	@Benchmark
+	public float getSample()
+	{
+		next = (next + 1) & 4095;
+		return path.getSampleX(indices[next]) + path.getSampleY(indices[next]);
+	}
+}
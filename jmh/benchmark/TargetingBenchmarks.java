@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import game.*;
+
+/**
+ * The <code>TargetingBenchmarks</code> class times the enemy lookups towers
+ * make. One operation is a lookup from every tower in the game.
+ *
+ * @author Caden Erickson
+ * @version December 25, 2021
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TargetingBenchmarks
+{
+	// Fields
+	@Param({"10", "100", "1000", "10000"})
+	public int enemies;
+
+	@Param({"1", "10", "50", "200"})
+	public int towers;
+
+	private static final double RANGE = 100;
+
+	private GameState state;
+	private Point[] spots;
+	private double[][] spans;	// the stretches of path in range of each spot
+
+	@Setup
+	public void setUp()
+	{
+		state = GameFixtures.buildGame(enemies, towers);
+		spots = GameFixtures.towerSpots(towers).toArray(new Point[0]);
+
+		Path path = ResourceLoader.getLoader().getPath("path.txt");
+		spans = new double[spots.length][];
+		for (int i = 0; i < spots.length; i++)
+		{
+			spans[i] = path.spansWithin(spots[i], RANGE);
+		}
+	}
+
+	@Benchmark
+	public void nearestEnemy(Blackhole hole)
+	{
+		for (Point p : spots)
+		{
+			hole.consume(state.nearestEnemy(p));
+		}
+	}
+
+	@Benchmark
+	public void nearestEnemyWithin(Blackhole hole)
+	{
+		for (Point p : spots)
+		{
+			hole.consume(state.nearestEnemyWithin(p, RANGE));
+		}
+	}
+
+	@Benchmark
+	public void firstEnemyWithin(Blackhole hole)
+	{
+		for (int i = 0; i < spots.length; i++)
+		{
+			hole.consume(state.firstEnemyWithin(spots[i], RANGE, spans[i]));
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import game.*;
+
+/**
+ * The <code>UpdateBenchmarks</code> class times a single update of the game.
+ *
+ * Updating kills enemies and moves them along, so the game can't be updated
+ * forever. Each iteration starts from a freshly built game and runs one second
+ * of game time (60 updates), and the time reported is per update.
+ *
+ * @author Caden Erickson
+ * @version December 11, 2021
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = 60)
+@Measurement(iterations = 40, batchSize = 60)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class UpdateBenchmarks
+{
+	// Fields
+	@Param({"10", "100", "1000", "10000"})
+	public int enemies;
+
+	@Param({"1", "10", "50", "200"})
+	public int towers;
+
+	private GameState state;
+
+	@Setup(Level.Iteration)
+	public void setUp()
+	{
+		state = GameFixtures.buildGame(enemies, towers);
+	}
+
+	@Benchmark
+	public int updateAll()
+	{
+		state.updateAll(HeadlessRunner.TIME_STEP);
+		return state.getNumEnemies();
+	}
+}
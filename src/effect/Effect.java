@@ -11,7 +11,7 @@ import game.*;
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public abstract class Effect implements Animatable
+public abstract class Effect implements Animatable, Bounded
 {
 	// Superclass fields
 	protected GameState state;
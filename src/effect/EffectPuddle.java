@@ -13,25 +13,30 @@ import tower.*;
  * screen, that acts as the fired attack from Bleach towers.
  * 
  * Objects of this class keep track of the the GameState, their origin, radius,
- * life time, and whether or not they've killed an enemy. They will also have
- * functionality to update their info and draw themselves, and to interact with
- * and destroy enemies.
+ * and whether or not they've killed an enemy, and schedule their own removal
+ * when they're built. They will also have functionality to update their info
+ * and draw themselves, and to interact with and destroy enemies.
  * 
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public class EffectPuddle extends Effect
+public class EffectPuddle extends Effect implements Collider, Timed
 {
 	// Fields
 	double radius;
 	boolean used;
-	double lifeTime;
 	TowerBleach parent;
+	
+	// puddles spread 180 pixels per second (3 pixels per 1/60th second tick), up to 60
+	private static final double GROWTH_RATE = 180.0;
+	private static final double MAX_RADIUS = 60.0;
+	private static final double LIFE_TIME = 1.0;	// seconds before the puddle dries up
+	private static final Color PUDDLE_COLOR = new Color(0.9f, 0.9f, 0.9f, 0.65f);
 
 	/**
 	 * EffectPuddle constructor. Objects built of this class will have functionality
-	 * given by the Effect superclass, as well as values for radius and lifeTime,
-	 * and tracking for whether or not they've killed an enemy.
+	 * given by the Effect superclass, as well as a radius, and tracking for whether
+	 * or not they've killed an enemy.
 	 * 
 	 * @param state  the current GameState object
 	 * @param origin the point from which the puddle emanates
@@ -41,48 +46,82 @@ public class EffectPuddle extends Effect
 		super(state, origin);
 		radius = 0;
 		used = false;
-		lifeTime = 0.0;
 		this.parent = parent;
+		state.schedule(this, LIFE_TIME);
 	}
 
 	/**
-	 * Updates the puddle's info (primarily radius). Also deals with timing out and
-	 * killing enemies in range.
+	 * Updates the puddle's info (primarily radius), and hands the puddle to the
+	 * GameState's collision pass to kill enemies in range.
 	 * 
 	 * @param timeElapsed how much time has passed (seconds) since the last update
 	 */
 	public void update(double timeElapsed)
 	{
-		lifeTime += timeElapsed;
-		
 		// Increases up to 60
-		if (radius < 60)
+		if (radius < MAX_RADIUS)
 		{
-			radius += 3;
+			radius = Math.min(MAX_RADIUS, radius + GROWTH_RATE * timeElapsed);
 		}
 		
-		// Expires after 1 second
-		if (lifeTime > 1)
+		// Until it's used, check it against the enemies once everything has moved
+		if (!used)
 		{
-			state.removeGameObject(this);
+			state.addCollider(this);
 		}
-		
-		// Look at the nearest enemy, and if one is in range, kill it
-		
-		Enemy victim = state.nearestEnemy(origin);
-		if (victim == null) return;
-		
-		if (origin.distance(victim.getPosition()) < radius + victim.getSize()/4 && !used)
+	}
+	
+	/**
+	 * Removes the puddle once it has dried up.
+	 */
+	public void timeUp()
+	{
+		state.removeGameObject(this);
+	}
+	
+	// COLLISION
+	public Point getCenter()
+	{
+		return origin;
+	}
+	
+	public double getReach()
+	{
+		return radius + 10; // no enemy is bigger than 40 pixels, so nothing past radius + 10 can be hit
+	}
+	
+	public boolean touches(Enemy e)
+	{
+		return origin.distance(e.getPosition()) < radius + e.getSize()/4;
+	}
+	
+	/**
+	 * Kills the enemy that walked into the puddle. A puddle can consume
+	 * unlimited pinks (one per update), but is used up by a blue or green.
+	 * 
+	 * @param e the enemy that was hit
+	 */
+	public void hit(Enemy e)
+	{
+		e.die();
+		parent.incrementVictims();
+		if (!(e instanceof EnemyPink))
 		{
-			victim.die();
-			parent.incrementVictims();
-			if (!(victim instanceof EnemyPink)) // it can consume unlimited pinks, but not blues or greens
-			{
-				used = true;
-			}
+			used = true;
 		}
 	}
 
+	/**
+	 * Marks the box around the puddle.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		int tempR = (int)radius;
+		region.add(origin.x-tempR, origin.y-tempR, tempR*2, tempR*2);
+	}
+
 	/**
 	 * Draws the puddle with its current radius, centered at its origin point.
 	 * 
@@ -92,7 +131,7 @@ public class EffectPuddle extends Effect
 	public void draw(Graphics g, GameView view)
 	{
 		int tempR = (int)radius;
-		g.setColor(new Color(0.9f, 0.9f, 0.9f, 0.65f));
+		g.setColor(PUDDLE_COLOR);
 		g.fillOval(origin.x-tempR, origin.y-tempR, tempR*2, tempR*2);
 	}
 }
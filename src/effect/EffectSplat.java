@@ -9,22 +9,29 @@ import game.*;
  * An EffectPuddle object represents a splat icon drawn on the screen, generated
  * when a Pink Enemy dies.
  * 
- * Objects of this class keep track of the the GameState, their origin,
- * lifetime, and opacity. They will also have functionality to update their info
- * and draw themselves.
+ * Objects of this class keep track of the the GameState, their origin, and
+ * when they were made. Their opacity is worked out from their age when they're
+ * drawn, so they have nothing to do between being made and being removed.
+ * They will also have functionality to draw themselves.
  * 
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public class EffectSplat extends Effect
+public class EffectSplat extends Effect implements Timed, Idle
 {
 	// Fields
-	private float opacity;
-	private double lifeTime;
+	private double madeAt;		// when the splat was made, by the GameState's timer clock
+	
+	// splats start at 0.9 opacity, and fade 6.0 per second (0.1 per 1/60th
+	// second tick) once they're 0.2 seconds old
+	private static final float START_OPACITY = 0.9f;
+	private static final float FADE_RATE = 6.0f;
+	private static final double FADE_DELAY = 0.2;
 	
 	/**
 	 * EffectPuddle constructor. Objects built of this class will have functionality
-	 * given by the Effect superclass, as well as values for lifeTime and opacity.
+	 * given by the Effect superclass, and schedule their removal for when they've
+	 * faded out.
 	 * 
 	 * @param state
 	 * @param origin
@@ -32,40 +39,51 @@ public class EffectSplat extends Effect
 	public EffectSplat(GameState state, Point origin)
 	{
 		super(state, origin);
-		opacity = 0.9f;
+		madeAt = state.getTimerTime();
+		state.schedule(this, FADE_DELAY + START_OPACITY / FADE_RATE);
 	}
 
 	/**
-	 * Updates the lifeTime and opacity variables. After having existed for 0.2
-	 * seconds, the opacity will decrease, and the object will remove itself when
-	 * the opacity reaches 0.
+	 * Nothing to update- the opacity comes from the splat's age. Splats are
+	 * <code>Idle</code>, so the <code>GameState</code> doesn't call this.
 	 * 
-	 * @param timeElapsed the number of seconds elapsed since the last update
+	 * @param timeElapsed unused
 	 */
 	public void update(double timeElapsed)
 	{
-		lifeTime += timeElapsed;
-		if (lifeTime > 0.2)
-		{
-			opacity -= 0.1f;
-		}
-		
-		if (opacity <= 0.0f)
-		{
-			state.removeGameObject(this);
-		}
+	}
+	
+	/**
+	 * Removes the splat once it has faded out.
+	 */
+	public void timeUp()
+	{
+		state.removeGameObject(this);
+	}
+
+	/**
+	 * Marks the box the splat image is drawn in.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(origin.x-10, origin.y-10, 20, 20);
 	}
 
 	/**
 	 * Draws the splat image. This draw method makes use of the overloaded
 	 * <code>drawCenteredImage</code> method that takes an alpha parameter, so the
-	 * opacity of the splat image can be adjusted.
+	 * opacity of the splat image can be adjusted. After having existed for 0.2
+	 * seconds, the opacity decreases by FADE_RATE per second.
 	 * 
 	 * @param g    the <code>Graphics</code> context in which to paint
 	 * @param view the current <code>GameView</code> object
 	 */
 	public void draw(Graphics g, GameView view)
 	{
+		double fadeTime = Math.max(0.0, state.getTimerTime() - madeAt - FADE_DELAY);
+		float opacity = Math.max(0.0f, START_OPACITY - FADE_RATE * (float)fadeTime);
 		view.drawCenteredImage(g, "splat.png", origin, 20, 20, opacity);
 	}
 }
@@ -13,21 +13,23 @@ import tower.*;
  * acts as the fired attack from Spray towers.
  * 
  * Objects of this class keep track of the the GameState, their origin, the
- * location of the enemy fired at, their life time, and whether it's their first
- * update. They will also have functionality to create the particle objects, and
- * update and draw them.
+ * location of the enemy fired at, and whether it's their first update. Their
+ * life time is scheduled with the GameState when they're built. They will
+ * also have functionality to create the particle objects, and update and draw
+ * them.
  * 
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public class EffectSpray extends Effect
+public class EffectSpray extends Effect implements Timed
 {
 	// Fields
 	Point destination;
 	private List<EffectSprayParticle> particles;
-	double lifeTime;
 	boolean firstUpdate;
 	TowerSpray parent;
+	
+	private static final double LIFE_TIME = 0.25;	// seconds before the spray disappears
 
 	/**
 	 * EffectSpray constructor. Objects built of this class will have functionality
@@ -42,16 +44,16 @@ public class EffectSpray extends Effect
 	public EffectSpray(GameState state, Point origin, Point destination, TowerSpray parent)
 	{
 		super(state, origin);
-		this.destination = destination;
+		this.destination = new Point(destination); // copy- the enemy's position keeps moving
 		particles = new ArrayList<EffectSprayParticle>(5);
 		firstUpdate = true;
 		this.parent = parent;
+		state.schedule(this, LIFE_TIME);
 	}
 
 	/**
-	 * Updates the spray's info (mainly lifetime). Particle objects
-	 * will be created on the the first update, and updated in ensuing
-	 * updates. Also deals with timing out.
+	 * Updates the spray's info. Particle objects will be created on the the
+	 * first update, and updated in ensuing updates.
 	 * 
 	 * @param timeElapsed the number of seconds elapsed since the last update
 	 */
@@ -66,12 +68,14 @@ public class EffectSpray extends Effect
 		{
 			p.update(timeElapsed);
 		}
-		
-		lifeTime += timeElapsed;
-		if (lifeTime > 0.25)
-		{
-			state.removeGameObject(this);
-		}
+	}
+	
+	/**
+	 * Removes the spray once its life time is up.
+	 */
+	public void timeUp()
+	{
+		state.removeGameObject(this);
 	}
 
 	/**
@@ -79,9 +83,20 @@ public class EffectSpray extends Effect
 	 */
 	public void draw(Graphics g, GameView view)
 	{
-		for (EffectSprayParticle p : particles)
+		for (int i = 0; i < particles.size(); i++)
+		{
+			particles.get(i).draw(g, view);
+		}
+	}
+
+	/**
+	 * Marks the area each particle is drawn in.
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		for (int i = 0; i < particles.size(); i++)
 		{
-			p.draw(g, view);
+			particles.get(i).addDrawnArea(region);
 		}
 	}
 
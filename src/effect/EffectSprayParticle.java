@@ -20,7 +20,7 @@ import tower.*;
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public class EffectSprayParticle extends Effect
+public class EffectSprayParticle extends Effect implements Collider
 {
 	// Fields
 	//geometry fields
@@ -32,6 +32,10 @@ public class EffectSprayParticle extends Effect
 	Point position;
 	Color particleColor;
 	
+	// particles travel 270 pixels per second (4.5 pixels per 1/60th second tick)
+	private static final double SPEED = 270.0;
+	private static final Color SPENT_COLOR = new Color(1.0f, 1.0f, 1.0f, 0.0f);
+	
 	//state fields
 	boolean used;
 	boolean firstUpdate;
@@ -97,9 +101,10 @@ public class EffectSprayParticle extends Effect
 	/**
 	 * Updates the info (mainly position) of the spray particle. On the first
 	 * update, the angle/trajectory of the particle will be adjusted to its correct
-	 * quadrant via the <code>adjustAngle()</code> method. If the particle collides
-	 * with an enemy, the enemy will be killed, and this particle will become used
-	 * and transparent. Once used, it will no longer kill any more enemies.
+	 * quadrant via the <code>adjustAngle()</code> method. Until it's used, the
+	 * particle hands itself to the GameState's collision pass, which kills the
+	 * first enemy it runs into (see <code>hit()</code>). Once used, it will no
+	 * longer kill any more enemies.
 	 * 
 	 * @param timeElapsed how much time has passed (seconds) since the last update
 	 */
@@ -112,21 +117,44 @@ public class EffectSprayParticle extends Effect
 		if (!used)
 		{
 //			radius += speed;
-			radius += 4.5;
+			radius += SPEED * timeElapsed;
 			position.x = (int)(origin.x+Math.cos(angle)*radius);
 			position.y = (int)(origin.y-Math.sin(angle)*radius);
 			
-			Enemy victim = state.nearestEnemy(position);
-			if (victim == null) return;
-			if (position.distance(victim.getPosition()) < victim.getSize()/2)
-			{
-				victim.die();
-				parent.incrementVictims();
-				used = true;
-				particleColor = new Color(1.0f, 1.0f, 1.0f, 0.0f);
-			}
+			// Checked against the enemies once everything has moved
+			state.addCollider(this);
 		}
 	}
+	
+	// COLLISION
+	public Point getCenter()
+	{
+		return position;
+	}
+	
+	public double getReach()
+	{
+		return 20; // no enemy is bigger than 40 pixels, so nothing past 20 can be hit
+	}
+	
+	public boolean touches(Enemy e)
+	{
+		return !used && position.distance(e.getPosition()) < e.getSize()/2;
+	}
+	
+	/**
+	 * Kills the enemy the particle ran into. The particle is used up and turns
+	 * transparent.
+	 * 
+	 * @param e the enemy that was hit
+	 */
+	public void hit(Enemy e)
+	{
+		e.die();
+		parent.incrementVictims();
+		used = true;
+		particleColor = SPENT_COLOR;
+	}
 
 	/**
 	 * Draws the particle at its calculated position, in its specified color. The
@@ -142,6 +170,16 @@ public class EffectSprayParticle extends Effect
 		g.fillOval(position.x, position.y, 4, 4);
 	}
 	
+	/**
+	 * Marks the small box the particle is drawn in.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(position.x, position.y, 4, 4);
+	}
+	
 	/**
 	 * This method is used to adjust the angle/trajectory of the current spray
 	 * particle. When the angle is calculated in EffectSpray, the x component is
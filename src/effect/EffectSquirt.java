@@ -27,4 +27,9 @@ public class EffectSquirt extends Effect
 	public void draw(Graphics g, GameView view)
 	{
 	}
+
+	@Override
+	public void addDrawnArea(DirtyRegion region)
+	{
+	}
 }
@@ -8,82 +8,162 @@ import game.*;
 /**
  * The <code>Enemy</code> superclass contains fields and methods used by all
  * subclasses that extend this class.
- * 
+ *
+ * An Enemy object is a lightweight handle- its data (how far it has traveled,
+ * speed, size, potency and position) lives in a slot of the game's
+ * <code>EnemyPool</code>, and the handle is recycled once the enemy has left
+ * the game. New enemies should be made with <code>EnemyPool.spawn()</code>.
+ *
+ * Enemies don't move themselves- <code>EnemyPool.move()</code> moves every
+ * enemy at the start of each tick, so by the time anything else updates, each
+ * enemy's position is where it is this tick. Drawing only reads it.
+ *
  * @author Caden Erickson
- * @version December 01, 2021
+ * @version December 13, 2021
  */
-public abstract class Enemy implements Animatable
+public abstract class Enemy implements Animatable, Bounded
 {
 	// Fields
 	protected GameState state;
-	protected double percentTraveled;
-	protected Point position;
-		
-	protected String name;		// name of image file associated with the current enemy type
-	protected double velocity;	// pixels per second to move
-	protected int size;			// width and height, in pixels (enemies are resized to be square)
-	protected int potency;		// how many lives are lost when the enemy reaches the end (different types are more/less dangerous)
-	
+	protected EnemyPool pool;
+	protected final int slot;	// this enemy's index into the pool's arrays
+	protected Point position;	// the pool's x and y, rounded, for code that works with Points
+
 	/**
 	 * Enemy constructor. Objects built of classes that extend this superclass will
 	 * keep track of how far along the path they have traveled. They will also have
 	 * access to the GameState object to be able to call necessary methods.
-	 * 
+	 *
 	 * @param percentTraveled how far along the path the germ has gone, given as a
 	 *                        percentage between 0.0 and 1.0
-	 * @state the current GameState object
+	 * @param state           the current GameState object
+	 * @param enemyType       the pool type (PINK, BLUE or GREEN) of this enemy
 	 */
-	public Enemy(double percentTraveled, GameState state)
+	protected Enemy(double percentTraveled, GameState state, int enemyType)
 	{
 		this.state = state;
-		this.percentTraveled = percentTraveled;
-		position = ResourceLoader.getLoader().getPath("path.txt").getPathPosition(percentTraveled);
+		pool = state.getEnemyPool();
+		slot = pool.claimSlot(this);
+		pool.type[slot] = (byte)enemyType;
+		position = new Point();
+		activate(percentTraveled);
+	}
+
+	/**
+	 * Readies this enemy to (re-)enter the game at the specified point along the
+	 * path. Called when the enemy is first built, and again each time the pool
+	 * reuses it.
+	 *
+	 * @param percentTraveled how far along the path to start
+	 */
+	void activate(double percentTraveled)
+	{
+		pool.initialize(slot, pool.type[slot], percentTraveled);
+		pool.place(slot);
+		pool.previousX[slot] = pool.x[slot];
+		pool.previousY[slot] = pool.y[slot];
 		state.incrementEnemyCount();
 	}
-	
+
 	/**
 	 * Updates the Enemy's data. <br>
-	 * Each update will increase the percentage of the path that the enemy has
-	 * traveled by a small amount. When 100% is reached, the percentage resets to 0.
-	 * 
-	 * @param timeElapsed the scalar (sec) by which to multiply the velocity
-	 *                    (pixels/sec)
+	 * Movement is done for every enemy at once by <code>EnemyPool.move()</code>,
+	 * so there's nothing left to do here.
+	 *
+	 * @param timeElapsed unused
 	 */
 	public void update(double elapsedTime)
 	{
-		percentTraveled += elapsedTime * velocity;
-		if (percentTraveled > 1.0)
-		{
-			state.removeGameObject(this);
-			state.updateLives(potency);
-		}
+		// Moved by the pool
 	}
-	
+
+	/**
+	 * Takes the enemy out of the game after it has reached the end of the path,
+	 * and the player loses lives. Called by <code>EnemyPool.move()</code>.
+	 */
+	void escape()
+	{
+		state.removeGameObject(this);
+		state.decrementEnemyCount();
+		state.updateLives(pool.potency[slot]);
+	}
+
 	/**
 	 * Draws the Enemy. <br>
-	 * Loads the path from the <code>ResourceLoader</code> object, and then draws
-	 * uses the path's <code>getPathPosition()</code> method to find the position of
-	 * the <code>Enemy</code> on the path, given as a coordinate point.
-	 * 
+	 * The enemy is drawn between its positions from the last two ticks, as far
+	 * along as the game state's interpolation says, so movement stays smooth
+	 * even when frames don't line up exactly with ticks.
+	 *
 	 * @param g the <code>Graphics</code> context in which to paint
 	 */
 	public void draw(Graphics g, GameView view)
 	{
-		// Find the position of the ball
-		position = ResourceLoader.getLoader().getPath("path.txt").getPathPosition(percentTraveled);
-		view.drawCenteredImage(g, name, position, size, size);
+		Point drawPoint = findDrawPoint();
+		int size = pool.size[slot];
+		view.drawCenteredImage(g, EnemyPool.imageFor(pool.type[slot]), drawPoint, size, size);
 	}
-	
+
+	/**
+	 * Marks the square the enemy will be drawn in.
+	 *
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		Point drawPoint = findDrawPoint();
+		int size = pool.size[slot];
+		region.add(drawPoint.x - size/2, drawPoint.y - size/2, size, size);
+	}
+
+	/**
+	 * Works out where to draw the enemy (between its last two positions) into the
+	 * pool's shared draw point.
+	 */
+	private Point findDrawPoint()
+	{
+		double t = state.getInterpolation();
+		Point drawPoint = pool.drawPoint;
+		drawPoint.x = (int)(pool.previousX[slot] + (pool.x[slot] - pool.previousX[slot]) * t);
+		drawPoint.y = (int)(pool.previousY[slot] + (pool.y[slot] - pool.previousY[slot]) * t);
+		return drawPoint;
+	}
+
 	public Point getPosition()
 	{
 		return position;
 	}
-	
+
 	public int getSize()
 	{
-		return size;
+		return pool.size[slot];
+	}
+
+	public double getPercentTraveled()
+	{
+		return pool.percentTraveled[slot];
 	}
 	
+	/**
+	 * Returns the pool type of this enemy. Tougher enemies have higher types.
+	 * 
+	 * @return PINK, BLUE or GREEN
+	 */
+	public int getType()
+	{
+		return pool.type[slot];
+	}
+	
+	/**
+	 * Returns how many times this handle has been recycled. A reference to an
+	 * enemy is only still good while the generation it saw hasn't changed.
+	 * 
+	 * @return the generation of this handle
+	 */
+	public int getGeneration()
+	{
+		return pool.generation[slot];
+	}
+
 	/**
 	 * Takes necessary action when an enemy is hit by a tower's effect, such as
 	 * adding credits, creating other enemies, or removing the current enemy.
@@ -19,19 +19,18 @@ public class EnemyBlue extends Enemy
 
 	/**
 	 * Blue Enemy constructor. Objects built of this class will have functionality
-	 * given by the Enemy superclass, as well as values for name, speed, and size.
+	 * given by the Enemy superclass; their name, speed, size, and potency come
+	 * from the BLUE entry in <code>EnemyPool</code>. Use
+	 * <code>EnemyPool.spawn()</code> rather than building these directly, so idle
+	 * enemies get reused.
 	 * 
 	 * @param percentTraveled how far along the path the germ has gone, given as a
 	 *                        percentage between 0.0 and 1.0
 	 * @param state           the current GameState object
 	 */
-	public EnemyBlue(double percentTraveled, GameState state)
+	EnemyBlue(double percentTraveled, GameState state)
 	{
-		super(percentTraveled, state);
-		name = "germ_blue.png";
-		velocity = 0.025;
-		size = 30;
-		potency = -5;
+		super(percentTraveled, state, EnemyPool.BLUE);
 	}
 	
 	/**
@@ -48,9 +47,10 @@ public class EnemyBlue extends Enemy
 		 */
 		if (!state.alreadyQueuedToDie(this))
 		{
+			double percentTraveled = getPercentTraveled();
 			for (int i = 0; i < 5; i++)
 			{
-				state.addGameObject(new EnemyPink((percentTraveled + i*0.01) - 0.02, state));
+				state.addGameObject(pool.spawn(EnemyPool.PINK, (percentTraveled + i*0.01) - 0.02));
 			}
 			state.decrementEnemyCount();
 			state.removeGameObject(this);
@@ -19,19 +19,18 @@ public class EnemyGreen extends Enemy
 
 	/**
 	 * Green Enemy constructor. Objects built of this class will have functionality
-	 * given by the Enemy superclass, as well as values for name, speed, and size.
+	 * given by the Enemy superclass; their name, speed, size, and potency come
+	 * from the GREEN entry in <code>EnemyPool</code>. Use
+	 * <code>EnemyPool.spawn()</code> rather than building these directly, so idle
+	 * enemies get reused.
 	 * 
 	 * @param percentTraveled how far along the path the germ has gone, given as a
 	 *                        percentage between 0.0 and 1.0
 	 * @param state           the current GameState object
 	 */
-	public EnemyGreen(double percentTraveled, GameState state)
+	EnemyGreen(double percentTraveled, GameState state)
 	{
-		super(percentTraveled, state);
-		name = "germ_green.png";
-		velocity = 0.015;
-		size = 40;
-		potency = -15;
+		super(percentTraveled, state, EnemyPool.GREEN);
 	}
 
 	/**
@@ -48,9 +47,10 @@ public class EnemyGreen extends Enemy
 		 */
 		if (!state.alreadyQueuedToDie(this))
 		{
+			double percentTraveled = getPercentTraveled();
 			for (int i = 0; i < 3; i++)
 			{
-				state.addGameObject(new EnemyBlue((percentTraveled + i*0.015) - 0.015, state));
+				state.addGameObject(pool.spawn(EnemyPool.BLUE, (percentTraveled + i*0.015) - 0.015));
 			}
 			state.decrementEnemyCount();
 			state.removeGameObject(this);
@@ -1,5 +1,7 @@
 package enemy;
 
+import java.awt.Point;
+
 import effect.EffectSplat;
 import game.GameState;
 
@@ -20,19 +22,18 @@ public class EnemyPink extends Enemy
 
 	/**
 	 * Pink Enemy constructor. Objects built of this class will have functionality
-	 * given by the Enemy superclass, as well as values for name, speed, and size.
+	 * given by the Enemy superclass; their name, speed, size, and potency come
+	 * from the PINK entry in <code>EnemyPool</code>. Use
+	 * <code>EnemyPool.spawn()</code> rather than building these directly, so idle
+	 * enemies get reused.
 	 * 
 	 * @param percentTraveled how far along the path the germ has gone, given as a
 	 *                        percentage between 0.0 and 1.0
 	 * @param state           the current GameState object
 	 */
-	public EnemyPink(double percentTraveled, GameState state)
+	EnemyPink(double percentTraveled, GameState state)
 	{
-		super(percentTraveled, state);
-		name = "germ_pink.png";
-		velocity = 0.040;
-		size = 20;
-		potency = -1;
+		super(percentTraveled, state, EnemyPool.PINK);
 	}
 
 	/**
@@ -50,7 +51,7 @@ public class EnemyPink extends Enemy
 		{
 			state.updateCredits(1);
 			state.decrementEnemyCount();
-			state.addGameObject(new EffectSplat(state, position));
+			state.addGameObject(new EffectSplat(state, new Point(position))); // copy- this enemy will be reused
 			state.removeGameObject(this);
 		}
 	}
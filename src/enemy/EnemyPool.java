@@ -0,0 +1,276 @@
+package enemy;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+import game.GameState;
+import game.Path;
+import game.ResourceLoader;
+
+/**
+ * An <code>EnemyPool</code> object stores the data for every enemy in a game,
+ * in parallel arrays of primitives (one slot per enemy), and recycles enemies
+ * once they're gone.
+ *
+ * <code>Enemy</code> objects are handles- each one owns a slot in the pool
+ * and reads and writes its data there. When an enemy leaves the game, its
+ * handle (and slot) goes onto a free list for its type, and the next enemy of
+ * that type to spawn reuses it. Once a wave has warmed the pool up, splitting
+ * germs and spawning new ones doesn't create any garbage.
+ *
+ * The pool also moves every enemy in the game along the path, once per tick,
+ * in <code>move()</code>. Enemies only read their positions after that.
+ *
+ * @author Caden Erickson
+ * @version December 24, 2021
+ */
+public class EnemyPool
+{
+	// Fields
+	// enemy types- the same digits used in the enemy generation text files
+	public static final int PINK = 1;
+	public static final int BLUE = 2;
+	public static final int GREEN = 3;
+
+	// stats for each type, indexed by type
+	private static final String[] NAMES   = {null, "germ_pink.png", "germ_blue.png", "germ_green.png"};
+	private static final double[] SPEEDS  = {0.0, 0.040, 0.025, 0.015};	// fraction of the path per second
+	private static final int[] SIZES      = {0, 20, 30, 40};			// width and height, in pixels
+	private static final int[] POTENCIES  = {0, -1, -5, -15};			// lives lost when one reaches the end
+
+	// per-enemy data, indexed by slot
+	double[] percentTraveled;
+	double[] velocity;
+	int[] size;
+	int[] potency;
+	byte[] type;
+	double[] x, y;
+	double[] previousX, previousY;	// position as of the tick before, for drawing between ticks
+	int[] generation;		// bumped each time a slot's enemy leaves the game, so old references can tell
+	private Enemy[] handles;
+	private int slotCount;		// how many slots have ever been handed out
+	double[] scratch = new double[2];	// for path lookups, so they don't build new objects
+	Point drawPoint = new Point();	// for drawing, so it doesn't build new objects
+
+	// free lists- one stack of idle handles per type
+	private Enemy[][] spares;
+	private int[] spareCount;
+
+	private GameState state;
+	private Path path;		// the path every enemy follows, looked up once
+
+	/**
+	 * EnemyPool constructor. Starts with room for a modest wave; the arrays
+	 * double in size whenever they fill up.
+	 *
+	 * @param state the GameState the pooled enemies belong to
+	 */
+	public EnemyPool(GameState state)
+	{
+		this.state = state;
+		path = ResourceLoader.getLoader().getPath("path.txt");
+		allocate(256);
+
+		spares = new Enemy[GREEN + 1][16];
+		spareCount = new int[GREEN + 1];
+	}
+
+	/**
+	 * Returns an enemy of the specified type, placed at the specified point along
+	 * the path. An idle enemy of that type is reused if there is one; otherwise a
+	 * new one is built. The enemy is not added to the game- pass it to
+	 * <code>GameState.addGameObject()</code> for that.
+	 *
+	 * @param enemyType       PINK, BLUE or GREEN
+	 * @param percentTraveled how far along the path to start, between 0.0 and 1.0
+	 * @return the ready-to-use enemy
+	 */
+	public Enemy spawn(int enemyType, double percentTraveled)
+	{
+		if (spareCount[enemyType] > 0)
+		{
+			Enemy e = spares[enemyType][--spareCount[enemyType]];
+			spares[enemyType][spareCount[enemyType]] = null;
+			e.activate(percentTraveled);
+			return e;
+		}
+
+		switch (enemyType)
+		{
+			case PINK:
+				return new EnemyPink(percentTraveled, state);
+			case BLUE:
+				return new EnemyBlue(percentTraveled, state);
+			case GREEN:
+				return new EnemyGreen(percentTraveled, state);
+			default:
+				throw new IllegalArgumentException("Unknown enemy type: " + enemyType);
+		}
+	}
+
+	/**
+	 * Puts an enemy that has left the game onto the free list for its type, so a
+	 * later spawn can reuse it. Called by GameState once the enemy is out of all
+	 * of its lists- nothing may hold on to it after this.
+	 *
+	 * @param e the enemy to recycle
+	 */
+	public void release(Enemy e)
+	{
+		int enemyType = type[e.slot];
+		if (spareCount[enemyType] == spares[enemyType].length)
+		{
+			spares[enemyType] = Arrays.copyOf(spares[enemyType], spareCount[enemyType] * 2);
+		}
+		spares[enemyType][spareCount[enemyType]++] = e;
+		generation[e.slot]++;
+	}
+
+	/**
+	 * Hands out a brand new slot to a newly built enemy handle, growing the
+	 * arrays if they're full.
+	 *
+	 * @param e the handle that will own the slot
+	 * @return the slot number
+	 */
+	int claimSlot(Enemy e)
+	{
+		if (slotCount == handles.length)
+		{
+			allocate(handles.length * 2);
+		}
+		handles[slotCount] = e;
+		return slotCount++;
+	}
+
+	/**
+	 * Fills a slot with the stats for the specified type, and places it on the
+	 * path.
+	 *
+	 * @param slot            the slot to fill
+	 * @param enemyType       PINK, BLUE or GREEN
+	 * @param percentTraveled how far along the path to start
+	 */
+	void initialize(int slot, int enemyType, double percentTraveled)
+	{
+		type[slot] = (byte)enemyType;
+		this.percentTraveled[slot] = percentTraveled;
+		velocity[slot] = SPEEDS[enemyType];
+		size[slot] = SIZES[enemyType];
+		potency[slot] = POTENCIES[enemyType];
+	}
+
+	/**
+	 * Moves every enemy in the game along the path by one tick's worth of travel,
+	 * remembering where each one was for drawing between ticks. Enemies that
+	 * reach the end of the path leave the game. Called once per tick, before
+	 * anything else in the game is updated.
+	 *
+	 * @param enemies     the enemies currently in the game
+	 * @param elapsedTime the number of seconds to move them by
+	 */
+	public void move(List<Enemy> enemies, double elapsedTime)
+	{
+		for (int i = 0; i < enemies.size(); i++)
+		{
+			Enemy e = enemies.get(i);
+			int slot = e.slot;
+
+			previousX[slot] = x[slot];
+			previousY[slot] = y[slot];
+
+			percentTraveled[slot] += elapsedTime * velocity[slot];
+			place(slot);
+
+			if (percentTraveled[slot] > 1.0)
+			{
+				e.escape();
+			}
+		}
+	}
+
+	/**
+	 * Looks up where a slot's enemy is on the path, from how far it has
+	 * traveled, and stores it in the pool and in the enemy's position Point.
+	 *
+	 * @param slot the slot to place
+	 */
+	void place(int slot)
+	{
+		path.getBakedPositionInto(percentTraveled[slot], scratch);
+		x[slot] = scratch[0];
+		y[slot] = scratch[1];
+
+		Point position = handles[slot].position;
+		position.x = (int)scratch[0];
+		position.y = (int)scratch[1];
+	}
+
+	/**
+	 * Returns the name of the image file used to draw the specified type.
+	 *
+	 * @param enemyType PINK, BLUE or GREEN
+	 * @return the image file name
+	 */
+	public static String imageFor(int enemyType)
+	{
+		return NAMES[enemyType];
+	}
+
+	/**
+	 * Returns how fast the specified type moves along the path.
+	 *
+	 * @param enemyType PINK, BLUE or GREEN
+	 * @return the speed, as a fraction of the path per second
+	 */
+	public static double speedOf(int enemyType)
+	{
+		return SPEEDS[enemyType];
+	}
+
+	/**
+	 * Returns how many enemy handles (live or idle) the pool has built.
+	 *
+	 * @return the number of slots in use
+	 */
+	public int getSlotCount()
+	{
+		return slotCount;
+	}
+
+	/**
+	 * Grows (or first creates) the per-enemy arrays to the specified length,
+	 * keeping everything already in them.
+	 */
+	private void allocate(int length)
+	{
+		if (handles == null)
+		{
+			percentTraveled = new double[length];
+			velocity = new double[length];
+			size = new int[length];
+			potency = new int[length];
+			type = new byte[length];
+			x = new double[length];
+			y = new double[length];
+			previousX = new double[length];
+			previousY = new double[length];
+			generation = new int[length];
+			handles = new Enemy[length];
+			return;
+		}
+
+		percentTraveled = Arrays.copyOf(percentTraveled, length);
+		velocity = Arrays.copyOf(velocity, length);
+		size = Arrays.copyOf(size, length);
+		potency = Arrays.copyOf(potency, length);
+		type = Arrays.copyOf(type, length);
+		x = Arrays.copyOf(x, length);
+		y = Arrays.copyOf(y, length);
+		previousX = Arrays.copyOf(previousX, length);
+		previousY = Arrays.copyOf(previousY, length);
+		generation = Arrays.copyOf(generation, length);
+		handles = Arrays.copyOf(handles, length);
+	}
+}
@@ -0,0 +1,71 @@
+package game;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The <code>AllocationCounter</code> class reads how many bytes of memory the
+ * current thread has allocated so far. Reading it before and after a piece of
+ * work (like drawing a frame) tells how much garbage that work made.
+ *
+ * This relies on the HotSpot extension to <code>ThreadMXBean</code>. On a JVM
+ * without it, <code>isSupported()</code> returns false and the count is
+ * always 0.
+ *
+ * @author Caden Erickson
+ * @version December 18, 2021
+ */
+public class AllocationCounter
+{
+	// Fields
+	private static final com.sun.management.ThreadMXBean threads = findThreadBean();
+
+	/**
+	 * The class only has static methods, so no objects are built of it.
+	 */
+	private AllocationCounter() { }
+
+	/**
+	 * Returns true if this JVM can count allocated bytes.
+	 *
+	 * @return true if the counts are real
+	 */
+	public static boolean isSupported()
+	{
+		return threads != null;
+	}
+
+	/**
+	 * Returns the total number of bytes the calling thread has allocated since
+	 * it started.
+	 *
+	 * @return the byte count, or 0 if counting isn't supported
+	 */
+	public static long currentThreadBytes()
+	{
+		return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Finds the thread bean and turns on allocation counting, if this JVM has it.
+	 */
+	private static com.sun.management.ThreadMXBean findThreadBean()
+	{
+		try
+		{
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (!(bean instanceof com.sun.management.ThreadMXBean))
+				return null;
+
+			com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean)bean;
+			if (!hotspot.isThreadAllocatedMemorySupported())
+				return null;
+
+			hotspot.setThreadAllocatedMemoryEnabled(true);
+			return hotspot;
+		}
+		catch (LinkageError | UnsupportedOperationException e)
+		{
+			return null;
+		}
+	}
+}
@@ -6,10 +6,13 @@ import java.awt.Graphics;
  * A <code>Backdrop</code> object contains the necessary methods to draw the
  * background image of the game to the screen.
  * 
+ * The image never changes, so it's drawn once into the view's static layer
+ * rather than every frame.
+ * 
  * @author Caden Erickson
- * @version November 22, 2021
+ * @version December 21, 2021
  */
-public class Backdrop implements Animatable
+public class Backdrop implements Animatable, StaticArt, Bounded
 {
 	/** Constructor **/
 	public Backdrop()
@@ -30,8 +33,20 @@ public class Backdrop implements Animatable
 	 * 
 	 * @param g the <code>Graphics</code> context in which to paint
 	 */
+	public void drawStatic(Graphics g, GameView view)
+	{
+		g.drawImage(ResourceLoader.getLoader().getSprite("path.jpg", 600, 600), 0, 0, null);
+	}
+
+	/** Draws nothing per frame- the backdrop is all in the static layer **/
 	public void draw(Graphics g, GameView view)
 	{
-		g.drawImage(ResourceLoader.getLoader().getImage("path.jpg"), 0, 0, null);
+		// Drawn once, by drawStatic()
+	}
+
+	/** Marks nothing- the backdrop is all in the static layer **/
+	public void addDrawnArea(DirtyRegion region)
+	{
+		// Nothing drawn per frame
 	}
 }
\ No newline at end of file
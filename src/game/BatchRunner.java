@@ -0,0 +1,350 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A <code>BatchRunner</code> object plays many headless games at once, one
+ * per CPU core, and writes how each one went to a CSV file. It's meant for
+ * balance sweeps- trying out thousands of tower layouts and wave files in one
+ * go.
+ *
+ * Every session is an independent <code>HeadlessRunner</code> with its own
+ * <code>GameState</code>. The path and the wave programs are loaded once by
+ * the <code>ResourceLoader</code> and shared by every session, since neither
+ * ever changes.
+ *
+ * Usage:<br>
+ * <code>java game.BatchRunner layouts.txt results.csv</code>, where each line of
+ * layouts.txt is a wave file followed by towers given as type@x,y, with an
+ * optional targeting mode (the same as <code>HeadlessRunner</code>), or<br>
+ * <code>java game.BatchRunner random count towers [enemyFile] [seed] results.csv</code>,
+ * which places the given number of spray and bleach towers at random legal
+ * spots, with each session's layout picked by its own seed.
+ *
+ * @author Caden Erickson
+ * @version December 17, 2021
+ */
+public class BatchRunner
+{
+	// Fields
+	private List<Session> sessions;
+	private int threads;
+	public static final double MAX_GAME_TIME = 3600;	// far longer than any wave file runs
+	private static final String[] RANDOM_TYPES = {"spray", "bleach"};	// the towers that attack
+
+	/**
+	 * BatchRunner constructor. Sessions are run on one thread per available
+	 * processor.
+	 */
+	public BatchRunner()
+	{
+		sessions = new ArrayList<Session>();
+		threads = Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Adds a session with the specified towers.
+	 *
+	 * @param seed      the session's seed, recorded with its results
+	 * @param enemyFile the name of the enemy generation text file to use
+	 * @param towers    the towers to place, each given as type@x,y
+	 */
+	public void addSession(long seed, String enemyFile, List<String> towers)
+	{
+		sessions.add(new Session(sessions.size(), seed, enemyFile, towers));
+	}
+
+	/**
+	 * Adds the specified number of sessions, each with its own random layout of
+	 * spray and bleach towers at legal spots (on the field and more than 40
+	 * pixels from the path). Session i's layout is picked with seed baseSeed + i,
+	 * so any one layout can be rebuilt from its row in the results.
+	 *
+	 * @param count      how many sessions to add
+	 * @param towersEach how many towers to place in each session
+	 * @param enemyFile  the name of the enemy generation text file to use
+	 * @param baseSeed   the seed of the first session
+	 */
+	public void addRandomSessions(int count, int towersEach, String enemyFile, long baseSeed)
+	{
+		Path path = ResourceLoader.getLoader().getPath("path.txt");
+
+		for (int i = 0; i < count; i++)
+		{
+			long seed = baseSeed + i;
+			Random random = new Random(seed);
+			List<String> towers = new ArrayList<String>(towersEach);
+
+			while (towers.size() < towersEach)
+			{
+				int x = 25 + random.nextInt(550);
+				int y = 25 + random.nextInt(550);
+				if (path.isPlaceable(x, y))
+				{
+					towers.add(RANDOM_TYPES[random.nextInt(RANDOM_TYPES.length)] + "@" + x + "," + y);
+				}
+			}
+
+			addSession(seed, enemyFile, towers);
+		}
+	}
+
+	/**
+	 * Adds one session per line of a layout file. Each line holds a wave file
+	 * name followed by towers given as type@x,y; blank lines and lines starting
+	 * with # are skipped. A session's seed is its line number.
+	 *
+	 * @param filename the layout file to read
+	 * @throws IOException if the file can't be read
+	 */
+	public void addSessionsFrom(String filename) throws IOException
+	{
+		try (BufferedReader reader = new BufferedReader(new FileReader(filename)))
+		{
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null)
+			{
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+
+				String[] words = line.split("\\s+");
+				addSession(lineNumber, words[0], Arrays.asList(words).subList(1, words.length));
+			}
+		}
+	}
+
+	/**
+	 * Runs every session, spread across the worker threads, and waits for them
+	 * all to finish. A session that throws is recorded as an error rather than
+	 * stopping the rest.
+	 */
+	public void run()
+	{
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		List<Future<?>> running = new ArrayList<Future<?>>(sessions.size());
+
+		for (Session s : sessions)
+		{
+			running.add(workers.submit(s::run));
+		}
+
+		try
+		{
+			for (Future<?> f : running)
+			{
+				f.get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			// Sessions catch their own errors, so this shouldn't happen
+			throw new IllegalStateException(e.getCause());
+		}
+		finally
+		{
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Writes the results of every session to a CSV file, one row per session,
+	 * in the order they were added.
+	 *
+	 * @param filename the file to write
+	 * @throws IOException if the file can't be written
+	 */
+	public void writeCsv(String filename) throws IOException
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(filename)))
+		{
+			out.println("session,seed,enemy_file,result,lives_left,game_time,credits_left,ticks,total_kills,tower_kills");
+			for (Session s : sessions)
+			{
+				out.println(s.toCsv());
+			}
+		}
+	}
+
+	// ACCESSORS
+	public List<Session> getSessions()
+	{
+		return sessions;
+	}
+
+	public void setThreads(int threads)
+	{
+		this.threads = threads;
+	}
+
+	/**
+	 * Entry point for running a batch from the command line.
+	 *
+	 * @param args see the class comment
+	 * @throws IOException if the layout file can't be read or the results
+	 *                     can't be written
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		// Make sure nothing tries to open a window
+		System.setProperty("java.awt.headless", "true");
+
+		if (args.length < 2 || (args[0].equals("random") && args.length < 4))
+		{
+			System.out.println("Usage: java game.BatchRunner layouts.txt results.csv");
+			System.out.println("   or: java game.BatchRunner random count towers [enemyFile] [seed] results.csv");
+			return;
+		}
+
+		BatchRunner batch = new BatchRunner();
+		if (args[0].equals("random"))
+		{
+			int count = Integer.parseInt(args[1]);
+			int towers = Integer.parseInt(args[2]);
+			String enemyFile = args.length > 4 ? args[3] : "enemies.txt";
+			long seed = args.length > 5 ? Long.parseLong(args[4]) : 0;
+			batch.addRandomSessions(count, towers, enemyFile, seed);
+		}
+		else
+		{
+			batch.addSessionsFrom(args[0]);
+		}
+
+		long start = System.nanoTime();
+		batch.run();
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+		batch.writeCsv(args[args.length - 1]);
+		System.out.printf("Ran %d sessions on %d threads in %.2f s (%.1f sessions/sec)%n", batch.sessions.size(),
+				batch.threads, seconds, batch.sessions.size() / seconds);
+	}
+
+	/**
+	 * A <code>Session</code> object is one game in a batch- its setup, and once
+	 * it has run, its results.
+	 */
+	public static class Session
+	{
+		// Fields
+		// setup fields
+		private final int id;
+		private final long seed;
+		private final String enemyFile;
+		private final List<String> towers;
+
+		// result fields
+		private String result;
+		private int livesLeft;
+		private double gameTime;
+		private int creditsLeft;
+		private long ticks;
+		private int[] kills;
+
+		private Session(int id, long seed, String enemyFile, List<String> towers)
+		{
+			this.id = id;
+			this.seed = seed;
+			this.enemyFile = enemyFile;
+			this.towers = new ArrayList<String>(towers);
+			kills = new int[towers.size()];
+		}
+
+		/**
+		 * Plays this session's game to the end and records how it went.
+		 */
+		private void run()
+		{
+			try
+			{
+				HeadlessRunner runner = new HeadlessRunner(enemyFile);
+				for (String tower : towers)
+				{
+					runner.addTower(tower);
+				}
+
+				runner.run(MAX_GAME_TIME);
+
+				GameState state = runner.getState();
+				result = runner.getResult();
+				livesLeft = state.getLives();
+				gameTime = state.getTime();
+				creditsLeft = state.getCredits();
+				ticks = runner.getTicks();
+				for (int i = 0; i < kills.length; i++)
+				{
+					kills[i] = HeadlessRunner.killsFor(runner.getTowers().get(i));
+				}
+			}
+			catch (RuntimeException e)
+			{
+				result = "error: " + e;
+			}
+		}
+
+		/**
+		 * Returns this session as a row of the results file. The kills for each
+		 * tower go in one quoted column, as type@x,y=kills separated by
+		 * semicolons.
+		 */
+		private String toCsv()
+		{
+			StringBuilder towerKills = new StringBuilder();
+			int totalKills = 0;
+			for (int i = 0; i < kills.length; i++)
+			{
+				if (i > 0)
+					towerKills.append(';');
+				towerKills.append(towers.get(i)).append('=').append(kills[i]);
+				totalKills += kills[i];
+			}
+
+			return String.format(Locale.ROOT, "%d,%d,%s,\"%s\",%d,%.2f,%d,%d,%d,\"%s\"", id, seed, enemyFile,
+					result.replace("\"", "\"\""), livesLeft, gameTime, creditsLeft, ticks, totalKills, towerKills);
+		}
+
+		// ACCESSORS
+		public long getSeed()
+		{
+			return seed;
+		}
+
+		public String getResult()
+		{
+			return result;
+		}
+
+		public int getLivesLeft()
+		{
+			return livesLeft;
+		}
+
+		public double getGameTime()
+		{
+			return gameTime;
+		}
+
+		public int[] getKills()
+		{
+			return kills;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package game;
+
+/**
+ * Classes that implement the Bounded interface can say which part of the
+ * window they draw over. <code>GameView</code> uses this to redraw only the
+ * parts of the window where something is (or just was) drawn. Objects that
+ * don't implement it make the whole window get redrawn every frame.
+ * 
+ * @author Caden Erickson
+ * @version December 21, 2021
+ */
+public interface Bounded
+{
+	/**
+	 * Marks everything this object will draw in the next frame. It's fine to
+	 * mark a bit more than is really drawn, but never less.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region);
+}
@@ -1,7 +1,6 @@
 package game;
 
 import java.awt.Graphics;
-import java.awt.Point;
 import java.awt.Color;
 
 /**
@@ -23,6 +22,7 @@ public class Circle implements Animatable
 	private final int diameter = 26;
 	private final Color ballColor = new Color(232, 174, 14);
 	private final double movementRate = 0.060;
+	private double[] pathPosition = new double[2];
 
 	/**
 	 * Circle constructor. Objects built of this class will keep track of how far
@@ -64,10 +64,12 @@ public class Circle implements Animatable
 	public void draw(Graphics g, GameView view)
 	{
 		// Find the position of the circle
-		Point p = ResourceLoader.getLoader().getPath("path.txt").getPathPosition(percentTraveled);
+		ResourceLoader.getLoader().getPath("path.txt").getPathPositionInto(percentTraveled, pathPosition);
+		int x = (int)pathPosition[0];
+		int y = (int)pathPosition[1];
 
 		// Draw the circle
 		g.setColor(ballColor);
-		g.fillOval(p.x - (diameter / 2), p.y - (diameter / 2), diameter, diameter);
+		g.fillOval(x - (diameter / 2), y - (diameter / 2), diameter, diameter);
 	}
 }
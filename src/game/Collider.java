@@ -0,0 +1,49 @@
+package game;
+
+import java.awt.Point;
+
+import enemy.Enemy;
+
+/**
+ * Classes that implement the Collider interface are attacks that kill enemies
+ * they touch (spray particles, bleach puddles). Instead of looking for their
+ * own victims, they hand themselves to <code>GameState.addCollider()</code>
+ * during their update, and every collider is checked against the enemies in
+ * one pass once all objects have moved.
+ * 
+ * @author Caden Erickson
+ * @version December 20, 2021
+ */
+public interface Collider
+{
+	/**
+	 * Returns the point the collider reaches out from.
+	 * 
+	 * @return the center of the collider
+	 */
+	public Point getCenter();
+	
+	/**
+	 * Returns how far from the center an enemy could be and still be touched.
+	 * Only enemies closer than this are passed to <code>touches()</code>.
+	 * 
+	 * @return the reach, in pixels
+	 */
+	public double getReach();
+	
+	/**
+	 * Returns true if the collider is touching the passed enemy.
+	 * 
+	 * @param e the nearest living enemy in reach
+	 * @return true if the enemy should be hit
+	 */
+	public boolean touches(Enemy e);
+	
+	/**
+	 * Called when the collider touches an enemy. The collider kills it and gives
+	 * its tower the credit.
+	 * 
+	 * @param e the enemy that was touched
+	 */
+	public void hit(Enemy e);
+}
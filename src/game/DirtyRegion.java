@@ -0,0 +1,256 @@
+package game;
+
+import java.awt.Rectangle;
+
+/**
+ * A <code>DirtyRegion</code> object keeps track of which parts of the window
+ * need to be redrawn. The window is split into square tiles, and each tile is
+ * either dirty or clean. Adding an area marks every tile it touches, so many
+ * small, scattered areas (like enemies spread along the path) stay small
+ * instead of growing into one big bounding box.
+ *
+ * Each row of tiles is stored as the bits of one int, so marking, combining
+ * and clearing regions never allocates.
+ *
+ * @author Caden Erickson
+ * @version December 21, 2021
+ */
+public class DirtyRegion
+{
+	// Fields
+	public static final int TILE_SIZE = 32;
+
+	private final int width, height;
+	private final int columns, rows;
+	private final int fullRow;		// the bits of a row with every tile dirty
+	private final int[] tiles;		// one int per row of tiles, one bit per column
+
+	/**
+	 * DirtyRegion constructor. Builds a clean region covering a window of the
+	 * specified size.
+	 *
+	 * @param width  the width of the window, in pixels (at most 31 tiles wide)
+	 * @param height the height of the window, in pixels
+	 */
+	public DirtyRegion(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+		columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+		rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+		if (columns > 31)
+			throw new IllegalArgumentException("A " + width + " pixel wide window has too many columns of tiles");
+
+		fullRow = (1 << columns) - 1;
+		tiles = new int[rows];
+	}
+
+	/**
+	 * Marks every tile that the specified rectangle touches. Parts of the
+	 * rectangle outside the window are ignored.
+	 *
+	 * @param x      the left edge of the area
+	 * @param y      the top edge of the area
+	 * @param w      the width of the area
+	 * @param h      the height of the area
+	 */
+	public void add(int x, int y, int w, int h)
+	{
+		int left = Math.max(0, x);
+		int top = Math.max(0, y);
+		int right = Math.min(width, x + w);
+		int bottom = Math.min(height, y + h);
+		if (left >= right || top >= bottom)
+			return;
+
+		int firstColumn = left / TILE_SIZE;
+		int lastColumn = (right - 1) / TILE_SIZE;
+		int mask = ((1 << (lastColumn + 1)) - 1) & ~((1 << firstColumn) - 1);
+
+		for (int r = top / TILE_SIZE; r <= (bottom - 1) / TILE_SIZE; r++)
+		{
+			tiles[r] |= mask;
+		}
+	}
+
+	/**
+	 * Marks every tile that the passed region has marked.
+	 *
+	 * @param other a region covering a window of the same size
+	 */
+	public void add(DirtyRegion other)
+	{
+		for (int r = 0; r < rows; r++)
+		{
+			tiles[r] |= other.tiles[r];
+		}
+	}
+
+	/**
+	 * Marks the whole window.
+	 */
+	public void addAll()
+	{
+		java.util.Arrays.fill(tiles, fullRow);
+	}
+
+	/**
+	 * Makes every tile clean again.
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(tiles, 0);
+	}
+
+	/**
+	 * Makes this region mark exactly the tiles the passed region marks.
+	 *
+	 * @param other a region covering a window of the same size
+	 */
+	public void set(DirtyRegion other)
+	{
+		System.arraycopy(other.tiles, 0, tiles, 0, rows);
+	}
+
+	public boolean isEmpty()
+	{
+		for (int r = 0; r < rows; r++)
+		{
+			if (tiles[r] != 0)
+				return false;
+		}
+		return true;
+	}
+
+	public boolean isFull()
+	{
+		for (int r = 0; r < rows; r++)
+		{
+			if (tiles[r] != fullRow)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns how many tiles are marked.
+	 *
+	 * @return the dirty tile count
+	 */
+	public int getTileCount()
+	{
+		int count = 0;
+		for (int r = 0; r < rows; r++)
+		{
+			count += Integer.bitCount(tiles[r]);
+		}
+		return count;
+	}
+
+	public int getTotalTiles()
+	{
+		return rows * columns;
+	}
+
+	/**
+	 * Sets the passed rectangle to the smallest one that holds every marked
+	 * tile, trimmed to the window. Sets it empty if no tile is marked.
+	 *
+	 * @param bounds the rectangle to fill in
+	 * @return the same rectangle
+	 */
+	public Rectangle getBounds(Rectangle bounds)
+	{
+		int columnBits = 0;
+		int firstRow = -1, lastRow = -1;
+		for (int r = 0; r < rows; r++)
+		{
+			if (tiles[r] != 0)
+			{
+				columnBits |= tiles[r];
+				if (firstRow < 0)
+					firstRow = r;
+				lastRow = r;
+			}
+		}
+
+		if (firstRow < 0)
+		{
+			bounds.setBounds(0, 0, 0, 0);
+			return bounds;
+		}
+
+		int firstColumn = Integer.numberOfTrailingZeros(columnBits);
+		int lastColumn = 31 - Integer.numberOfLeadingZeros(columnBits);
+		return tileArea(firstColumn, firstRow, lastColumn, lastRow, bounds);
+	}
+
+	/**
+	 * Splits the marked tiles into rectangles, filling in the passed array.
+	 * Each row of tiles is split into runs of marked tiles, and a run is joined
+	 * onto the rectangle above it when both span the same columns.
+	 *
+	 * @param out the rectangles to fill in
+	 * @return how many rectangles were needed, or -1 if more were needed than
+	 *         the array holds
+	 */
+	public int getRectangles(Rectangle[] out)
+	{
+		int count = 0;
+		for (int r = 0; r < rows; r++)
+		{
+			int bits = tiles[r];
+			while (bits != 0)
+			{
+				// Find the next run of marked tiles in this row
+				int first = Integer.numberOfTrailingZeros(bits);
+				int last = first;
+				while (last + 1 < columns && (bits & (1 << (last + 1))) != 0)
+				{
+					last++;
+				}
+				bits &= ~((1 << (last + 1)) - 1);
+
+				// Grow the rectangle ending just above this run if it spans the same columns,
+				// otherwise start a new one
+				int x = first * TILE_SIZE;
+				int right = Math.min(width, (last + 1) * TILE_SIZE);
+				boolean joined = false;
+				for (int i = 0; i < count && !joined; i++)
+				{
+					Rectangle above = out[i];
+					if (above.x == x && above.x + above.width == right && above.y + above.height == r * TILE_SIZE)
+					{
+						above.height = Math.min(height, (r + 1) * TILE_SIZE) - above.y;
+						joined = true;
+					}
+				}
+
+				if (!joined)
+				{
+					if (count == out.length)
+						return -1;
+					if (out[count] == null)
+						out[count] = new Rectangle();
+					tileArea(first, r, last, r, out[count]);
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Sets the passed rectangle to the pixels covered by a block of tiles,
+	 * trimmed to the window.
+	 */
+	private Rectangle tileArea(int firstColumn, int firstRow, int lastColumn, int lastRow, Rectangle area)
+	{
+		int x = firstColumn * TILE_SIZE;
+		int y = firstRow * TILE_SIZE;
+		area.setBounds(x, y, Math.min(width, (lastColumn + 1) * TILE_SIZE) - x,
+				Math.min(height, (lastRow + 1) * TILE_SIZE) - y);
+		return area;
+	}
+}
@@ -0,0 +1,222 @@
+package game;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import enemy.Enemy;
+
+/**
+ * An <code>EnemyGrid</code> object is a uniform grid laid over the game field,
+ * used to find enemies near a point without looking at every enemy in the
+ * game.
+ *
+ * The grid is rebuilt from scratch once per update (see
+ * <code>GameState.updateAll()</code>) using a counting sort, so every enemy
+ * ends up in one flat array grouped by cell. Queries then only look at the
+ * cells that overlap the search area.
+ *
+ * @author Caden Erickson
+ * @version December 09, 2021
+ */
+public class EnemyGrid
+{
+	// Fields
+	// grid geometry fields
+	private static final int CELL_SIZE = 50;	// width and height of a cell, in pixels
+	private static final int COLUMNS = 12;		// 600 pixel field / 50 pixel cells
+	private static final int ROWS = 12;
+
+	// cell storage fields
+	private Enemy[] enemies;		// every enemy in the grid, grouped by cell
+	private int[] enemyCells;		// the cell each enemy was filed under (parallel to the input list)
+	private int[] cellStart;		// index into enemies[] where each cell's group begins (one extra entry at the end)
+	private int[] cellFill;			// scratch space used while filling the cells
+	private int count;
+
+	/**
+	 * EnemyGrid constructor. Allocates the cell tables; the enemy arrays grow as
+	 * needed when the grid is rebuilt.
+	 */
+	public EnemyGrid()
+	{
+		enemies = new Enemy[64];
+		enemyCells = new int[64];
+		cellStart = new int[COLUMNS * ROWS + 1];
+		cellFill = new int[COLUMNS * ROWS];
+		count = 0;
+	}
+
+	/**
+	 * Refiles every enemy in the passed list into its cell, based on each enemy's
+	 * current position.
+	 *
+	 * @param source the enemies to index
+	 */
+	public void rebuild(List<Enemy> source)
+	{
+		count = source.size();
+		if (enemies.length < count)
+		{
+			int newLength = Math.max(count, enemies.length * 2);
+			enemies = new Enemy[newLength];
+			enemyCells = new int[newLength];
+		}
+
+		// Count how many enemies land in each cell
+		Arrays.fill(cellStart, 0);
+		for (int i = 0; i < count; i++)
+		{
+			Point p = source.get(i).getPosition();
+			int cell = row(p.y) * COLUMNS + column(p.x);
+			enemyCells[i] = cell;
+			cellStart[cell + 1]++;
+		}
+
+		// Turn the counts into starting indices
+		for (int cell = 0; cell < COLUMNS * ROWS; cell++)
+		{
+			cellStart[cell + 1] += cellStart[cell];
+			cellFill[cell] = cellStart[cell];
+		}
+
+		// Drop each enemy into its cell's group
+		for (int i = 0; i < count; i++)
+		{
+			enemies[cellFill[enemyCells[i]]++] = source.get(i);
+		}
+
+		// Don't hang on to enemies from earlier, larger waves
+		Arrays.fill(enemies, count, enemies.length, null);
+	}
+
+	/**
+	 * Finds the nearest indexed enemy to a specified <code>Point</code>. Cells are
+	 * searched in growing rings around the point, stopping once no unsearched
+	 * cell could hold anything closer.
+	 *
+	 * @param p the <code>Point</code> to be used as the origin
+	 * @return the nearest enemy, or null if there are none
+	 */
+	public Enemy nearest(Point p)
+	{
+		return nearestWithin(p, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Finds the nearest indexed enemy that is strictly closer than
+	 * <code>radius</code> to a specified <code>Point</code>.
+	 *
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @return the nearest enemy in range, or null if there are none
+	 */
+	public Enemy nearestWithin(Point p, double radius)
+	{
+		return nearestWithin(p, radius, null);
+	}
+
+	/**
+	 * Finds the nearest indexed enemy that is strictly closer than
+	 * <code>radius</code> to a specified <code>Point</code>, passing over any
+	 * enemy in the <code>skip</code> set.
+	 *
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param skip   enemies to ignore (like ones already killed this update), or
+	 *               null to ignore none
+	 * @return the nearest enemy in range, or null if there are none
+	 */
+	public Enemy nearestWithin(Point p, double radius, Set<?> skip)
+	{
+		if (count == 0)
+			return null;
+
+		int centerColumn = column(p.x);
+		int centerRow = row(p.y);
+		int maxRing = Math.max(Math.max(centerColumn, COLUMNS - 1 - centerColumn),
+				Math.max(centerRow, ROWS - 1 - centerRow));
+
+		Enemy currentNearest = null;
+		double nearestDistance = radius;
+
+		for (int ring = 0; ring <= maxRing; ring++)
+		{
+			// Everything in this ring and beyond is at least this far away
+			if (ring > 0 && (ring - 1) * CELL_SIZE >= nearestDistance)
+				break;
+
+			for (int r = centerRow - ring; r <= centerRow + ring; r++)
+			{
+				if (r < 0 || r >= ROWS)
+					continue;
+
+				// Inner rows of the ring only need their two end cells
+				int step = (r == centerRow - ring || r == centerRow + ring) ? 1 : Math.max(1, 2 * ring);
+				for (int c = centerColumn - ring; c <= centerColumn + ring; c += step)
+				{
+					if (c < 0 || c >= COLUMNS)
+						continue;
+
+					int cell = r * COLUMNS + c;
+					for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++)
+					{
+						double distance = p.distance(enemies[i].getPosition());
+						if (distance < nearestDistance && (skip == null || !skip.contains(enemies[i])))
+						{
+							nearestDistance = distance;
+							currentNearest = enemies[i];
+						}
+					}
+				}
+			}
+		}
+
+		return currentNearest;
+	}
+
+	/**
+	 * Adds every indexed enemy strictly closer than <code>radius</code> to a
+	 * specified <code>Point</code> into the passed list.
+	 *
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param result the list to add the enemies in range to
+	 */
+	public void collectWithin(Point p, double radius, List<Enemy> result)
+	{
+		int reach = (int)Math.ceil(radius);
+		int firstColumn = column(p.x - reach);
+		int lastColumn = column(p.x + reach);
+		int firstRow = row(p.y - reach);
+		int lastRow = row(p.y + reach);
+
+		for (int r = firstRow; r <= lastRow; r++)
+		{
+			for (int c = firstColumn; c <= lastColumn; c++)
+			{
+				int cell = r * COLUMNS + c;
+				for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++)
+				{
+					if (p.distance(enemies[i].getPosition()) < radius)
+					{
+						result.add(enemies[i]);
+					}
+				}
+			}
+		}
+	}
+
+	// Helpers for turning pixel coordinates into cell coordinates.
+	// Anything off the field is filed under the nearest edge cell.
+	private static int column(int x)
+	{
+		return Math.min(COLUMNS - 1, Math.max(0, x / CELL_SIZE));
+	}
+
+	private static int row(int y)
+	{
+		return Math.min(ROWS - 1, Math.max(0, y / CELL_SIZE));
+	}
+}
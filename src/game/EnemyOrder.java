@@ -0,0 +1,232 @@
+package game;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Set;
+
+import enemy.Enemy;
+import enemy.EnemyPool;
+
+/**
+ * An <code>EnemyOrder</code> object keeps every enemy in the game sorted by how
+ * far along the path it has traveled, furthest first, so towers can find the
+ * first or last enemy in their range without looking at every enemy.
+ *
+ * The order changes a little every tick: pinks are faster than blues and
+ * greens and overtake them, and a popped enemy splits into germs part way
+ * down the path. <code>sort()</code> is an insertion sort, which is close to
+ * linear while the enemies are nearly in order, but pays a shift for every
+ * pair that swapped places since the last tick. Waves of one speed cost
+ * next to nothing; waves that mix fast and slow enemies cost more, in
+ * proportion to how many overtakes happen each tick.
+ *
+ * Queries take the stretches of the path a tower can reach (see
+ * <code>Path.spansWithin()</code>) and binary search for each one, so they
+ * only look at enemies on those stretches.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+public class EnemyOrder
+{
+	// Fields
+	private Enemy[] enemies;		// furthest along the path first
+	private double[] traveled;		// how far each enemy had traveled when last sorted (parallel to enemies[])
+	private int count;
+
+	/**
+	 * EnemyOrder constructor. The arrays grow as needed when enemies are added.
+	 */
+	public EnemyOrder()
+	{
+		enemies = new Enemy[64];
+		traveled = new double[64];
+		count = 0;
+	}
+
+	/**
+	 * Adds an enemy in its place in the order. New spawns start at the beginning
+	 * of the path, so they usually just go on the end.
+	 *
+	 * @param e the enemy to add
+	 */
+	public void add(Enemy e)
+	{
+		if (count == enemies.length)
+		{
+			enemies = Arrays.copyOf(enemies, count * 2);
+			traveled = Arrays.copyOf(traveled, count * 2);
+		}
+
+		// Behind every enemy that has traveled further
+		double key = e.getPercentTraveled();
+		int index = firstAtOrBelow(Math.nextDown(key));
+		System.arraycopy(enemies, index, enemies, index + 1, count - index);
+		System.arraycopy(traveled, index, traveled, index + 1, count - index);
+		enemies[index] = e;
+		traveled[index] = key;
+		count++;
+	}
+
+	/**
+	 * Takes every enemy in the passed set out of the order, keeping the rest in
+	 * the same order.
+	 *
+	 * @param removed the objects leaving the game
+	 */
+	public void removeAll(Set<?> removed)
+	{
+		int kept = 0;
+		for (int i = 0; i < count; i++)
+		{
+			if (!removed.contains(enemies[i]))
+			{
+				enemies[kept] = enemies[i];
+				traveled[kept] = traveled[i];
+				kept++;
+			}
+		}
+		Arrays.fill(enemies, kept, count, null);
+		count = kept;
+	}
+
+	/**
+	 * Re-reads how far every enemy has traveled, and moves any that have passed
+	 * the enemy ahead of them back into place.
+	 */
+	public void sort()
+	{
+		for (int i = 0; i < count; i++)
+		{
+			Enemy e = enemies[i];
+			double key = e.getPercentTraveled();
+
+			// Slide it forward past everything it has overtaken
+			int j = i;
+			while (j > 0 && traveled[j - 1] < key)
+			{
+				enemies[j] = enemies[j - 1];
+				traveled[j] = traveled[j - 1];
+				j--;
+			}
+			enemies[j] = e;
+			traveled[j] = key;
+		}
+	}
+
+	/**
+	 * Finds the enemy furthest along the path that is strictly closer than
+	 * <code>radius</code> to a specified <code>Point</code>.
+	 *
+	 * @param spans  the stretches of the path within range of the point
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param skip   enemies to ignore, or null to ignore none
+	 * @return the first enemy in range, or null if there are none
+	 */
+	public Enemy first(double[] spans, Point p, double radius, Set<?> skip)
+	{
+		for (int s = spans.length - 2; s >= 0; s -= 2)
+		{
+			for (int i = firstAtOrBelow(spans[s + 1]); i < count && traveled[i] >= spans[s]; i++)
+			{
+				if (inRange(enemies[i], p, radius, skip))
+					return enemies[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the enemy least far along the path that is strictly closer than
+	 * <code>radius</code> to a specified <code>Point</code>.
+	 *
+	 * @param spans  the stretches of the path within range of the point
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param skip   enemies to ignore, or null to ignore none
+	 * @return the last enemy in range, or null if there are none
+	 */
+	public Enemy last(double[] spans, Point p, double radius, Set<?> skip)
+	{
+		for (int s = 0; s < spans.length; s += 2)
+		{
+			for (int i = firstAtOrBelow(Math.nextDown(spans[s])) - 1; i >= 0 && traveled[i] <= spans[s + 1]; i--)
+			{
+				if (inRange(enemies[i], p, radius, skip))
+					return enemies[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the toughest enemy (green, then blue, then pink) that is strictly
+	 * closer than <code>radius</code> to a specified <code>Point</code>. Between
+	 * enemies of the same type, the one furthest along the path wins.
+	 *
+	 * @param spans  the stretches of the path within range of the point
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param skip   enemies to ignore, or null to ignore none
+	 * @return the strongest enemy in range, or null if there are none
+	 */
+	public Enemy strongest(double[] spans, Point p, double radius, Set<?> skip)
+	{
+		Enemy strongest = null;
+		int strongestType = 0;
+
+		for (int s = spans.length - 2; s >= 0; s -= 2)
+		{
+			for (int i = firstAtOrBelow(spans[s + 1]); i < count && traveled[i] >= spans[s]; i++)
+			{
+				int type = enemies[i].getType();
+				if (type > strongestType && inRange(enemies[i], p, radius, skip))
+				{
+					strongest = enemies[i];
+					strongestType = type;
+
+					// Nothing is tougher than a green
+					if (type == EnemyPool.GREEN)
+						return strongest;
+				}
+			}
+		}
+		return strongest;
+	}
+
+	/**
+	 * Returns the number of enemies in the order.
+	 *
+	 * @return the number of enemies
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the index of the first enemy (furthest along) that had traveled no
+	 * more than <code>percent</code> when last sorted, or the number of enemies
+	 * if there isn't one.
+	 */
+	private int firstAtOrBelow(double percent)
+	{
+		int low = 0, high = count;
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if (traveled[middle] > percent)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	// Helper for the final, exact distance check
+	private static boolean inRange(Enemy e, Point p, double radius, Set<?> skip)
+	{
+		return p.distance(e.getPosition()) < radius && (skip == null || !skip.contains(e));
+	}
+}
@@ -1,45 +1,70 @@
 package game;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
-import javax.swing.Timer;
-
-import enemy.EnemyBlue;
-import enemy.EnemyGreen;
-import enemy.EnemyPink;
 import screen.ScreenStart;
-import screen.ScreenWaveTitle;
 import screen.ScreenWin;
 
 /**
  * A GameControl object represents all of the logic and control needed to make
- * the game operate. The control is responsible for setting up the animation
- * timer, updating positions, dealing with user actions, etc.
+ * the game operate. The control is responsible for running the simulation
+ * loop, updating positions, dealing with user actions, etc.
+ * 
+ * The game is simulated on its own thread, in fixed ticks of 1/60th of a
+ * second. Real time is collected in an accumulator and paid out one tick at a
+ * time, so the game plays the same no matter how long any one frame takes.
+ * 
+ * Fast-forwarding (the F key) banks real time multiplied by the game's speed,
+ * so at 4x each frame pays out four times as many ticks. Every tick is still
+ * the same fixed length, so the game plays out exactly as it would at 1x-
+ * only the frame drawn after the last tick is seen.
+ * After each round of ticks the same thread renders a frame (see
+ * <code>GameView.renderFrame()</code>), and Swing just puts the finished
+ * frame on screen- a slow repaint never holds up the simulation.
+ * 
+ * How often frames are drawn is set with <code>-Drender.sync</code>:
+ * <code>tick</code> (the default) draws one frame per tick,
+ * <code>vsync</code> draws one per refresh of the screen, and
+ * <code>uncapped</code> draws frames back to back and prints how many it
+ * managed each second, for finding out how fast the game can really render.
+ * These go best with <code>-Drender.mode=active</code> (see
+ * <code>GameView</code>), where the frame is put on screen right away instead
+ * of waiting for Swing.
  * 
  * There is exactly one GameControl object for the entire game. (That's it's job
  * - to control the game.)
  * 
  * @author Caden Erickson
- * @version December 06, 2021
+ * @version December 22, 2021
  */
-public class GameControl implements Runnable, ActionListener
+public class GameControl implements Runnable
 {
 	// Fields
 	// high-level fields
 	private GameView view;
 	private GameState state;
 
-	// timer fields
-	private Timer timer;
-	private long previousTime;
+	// simulation loop fields
+	private Thread simulation;
+	private volatile boolean running;
+	public static final double TICK = 1.0 / 60.0;	// seconds of game time per update
+	private static final double MAX_FRAME = 0.25;	// most real time paid out at once, so a long stall doesn't snowball
 	private static double BILLION = 1_000_000_000.0;
+	
+	// frame pacing fields
+	private static final String SYNC = System.getProperty("render.sync", "tick");
+	private double framePeriod;		// seconds between frames, or 0 to draw them back to back
+	private int framesThisSecond;
+	private long fpsReportTime;
+	
+	// startup fields
+	private long launchTime;					// when run() was called, in nanoseconds
+	private long preloadTime;					// how long preloading every image took, in nanoseconds
+	private CompletableFuture<Void> preload;	// done once every image is decoded
+	private boolean firstFrameReported;
 
 	// enemy spawn fields
-	double nextSpawnTime;
-	private static double QUARTER = 0.25;
-	Scanner enemyLineUp;
+	private SpawnScheduler spawner;
 	
 	
 	/**
@@ -48,13 +73,32 @@ public class GameControl implements Runnable, ActionListener
 	 */
     public GameControl() { }    
     
+	/**
+	 * Headless constructor. Builds a GameControl around an existing game state,
+	 * with no view and no simulation thread. The caller drives the game by
+	 * calling <code>step()</code> itself (see <code>HeadlessRunner</code>).
+	 * 
+	 * @param state     the <code>GameState</code> to control
+	 * @param enemyFile the name of the enemy generation text file to read from
+	 */
+	public GameControl(GameState state, String enemyFile)
+	{
+		this.state = state;
+		spawner = new SpawnScheduler(state, ResourceLoader.getLoader().getWaveProgram(enemyFile));
+	}
+    
 	/**
 	 * Where the magic happens.<br>
 	 * This method sets up the game state and window, adds the backgrounds to the
-	 * window, and runs the timer.
+	 * window, and starts the simulation thread.
 	 */
     public void run()
     {    	
+    	// Start decoding every image on worker threads while the start screen comes up
+    	launchTime = System.nanoTime();
+    	preload = ResourceLoader.getLoader().preloadImages()
+    			.thenRun(() -> preloadTime = System.nanoTime() - launchTime);
+    	
     	// Build the game state.
     	state = new GameState();
     	
@@ -63,70 +107,204 @@ public class GameControl implements Runnable, ActionListener
     	
     	// Add initial view to the game
     	state.addGameObject(new ScreenStart(state, view));
-    	
-    	// Start the animation loop.
-    	// This timer expires and repeats ~60 times/second, causing an ActionEvent
-    	// each time, which is handled in the actionPerformed method below.
-    	timer = new Timer(16, this);
-    	timer.start();
-    	
-    	// Initialize time tracker
-    	previousTime = System.nanoTime();
     	    	
 		/*
-		 * Variables for adding the enemies systematically.
-		 * The enemies text file contains integers corresponding to enemies
-		 * to add, and nextSpawn will be a progressing variable the reading of 
-		 * that file at intervals. nextSpawn starts at the time the play is
-		 * activated, plus one second.
+		 * The enemies text file lists the enemies to add, and when. The spawner
+		 * plays it out against the game clock, which starts counting when play
+		 * is activated.
 		 */
-    	nextSpawnTime = 0.0;
-		enemyLineUp = ResourceLoader.getLoader().getEnemyFile("enemies.txt");
+		spawner = new SpawnScheduler(state, ResourceLoader.getLoader().getWaveProgram("enemies.txt"));
+		
+		// Work out how often to draw
+		switch (SYNC)
+		{
+			case "vsync":
+				framePeriod = 1.0 / GameView.getRefreshRate();
+				break;
+			case "uncapped":
+				framePeriod = 0.0;
+				break;
+			default:
+				framePeriod = TICK;
+		}
+		
+		// Start the simulation loop on its own thread
+		running = true;
+		simulation = new Thread(this::simulate, "Simulation");
+		simulation.setDaemon(true);
+		simulation.start();
     }
 
 	/**
-	 * Called whenever an action is performed for which we are listening. The timer
-	 * above registers this object as a listener for its events.
-	 * 
-	 * This method gets called repeatedly, so it acts like a loop. This makes it a great
-	 * tool as a cycling animation method.
+	 * The simulation loop. Each time around, the real time that has passed is
+	 * added to an accumulator, and the game is advanced one fixed tick at a time
+	 * until less than a tick is left over. A frame is then rendered, with moving
+	 * objects drawn part of the way between their last two positions based on
+	 * what's left in the accumulator, and the loop sleeps until the next frame is
+	 * due (see <code>render.sync</code> in the class comment).
+	 */
+	private void simulate()
+	{
+		long previousTime = System.nanoTime();
+		double accumulator = 0.0;
+		long nextFrameTime = previousTime;
+		fpsReportTime = previousTime;
+		
+		while (running)
+		{
+			// Get the current runtime of the game in nanoseconds, and bank the time
+			// since the last time around
+			long currentTime = System.nanoTime();
+			accumulator += Math.min(MAX_FRAME, (currentTime - previousTime) / BILLION) * state.getSpeed();
+			previousTime = currentTime;
+			
+			// Pay out the banked time in fixed ticks
+			while (accumulator >= TICK && running)
+			{
+				tick();
+				accumulator -= TICK;
+			}
+			
+			// Draw the game, blending between the last two ticks
+			state.setInterpolation(accumulator / TICK);
+			view.renderFrame();
+			reportFirstFrame();
+			reportFrameRate();
+			state.getProfiler().update(state);
+			
+			// Sleep until the next frame is due- either the next tick, or the next
+			// refresh of the screen. Uncapped, go straight round again.
+			long sleepNanos;
+			if (framePeriod == TICK)
+			{
+				sleepNanos = (long)((TICK - accumulator) / state.getSpeed() * BILLION) - (System.nanoTime() - currentTime);
+			}
+			else
+			{
+				nextFrameTime += (long)(framePeriod * BILLION);
+				long now = System.nanoTime();
+				if (nextFrameTime < now)
+				{
+					nextFrameTime = now; // fell behind- don't try to catch up on missed frames
+				}
+				sleepNanos = nextFrameTime - now;
+			}
+			if (sleepNanos > 0 && !pause(sleepNanos))
+			{
+				return;
+			}
+		}
+		
+		// Show how the game ended. In active mode nothing redraws the window for
+		// us, so keep putting the last frame up in case the window gets covered.
+		state.setInterpolation(1.0);
+		do
+		{
+			view.renderFrame();
+		}
+		while (view.isActive() && pause(100_000_000L));
+	}
+	
+	/**
+	 * Sleeps the simulation thread.
 	 * 
-	 * @param e the <code>ActionEvent</code> object to be used for progressing the
-	 *          animation
+	 * @param nanos how long to sleep, in nanoseconds
+	 * @return true if the sleep finished, false if the thread was interrupted
 	 */
-	public void actionPerformed(ActionEvent e)
-	{			
+	private static boolean pause(long nanos)
+	{
+		try
+		{
+			Thread.sleep(nanos / 1_000_000, (int)(nanos % 1_000_000));
+			return true;
+		}
+		catch (InterruptedException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * Counts a frame, and in uncapped mode prints how many frames were drawn in
+	 * each second.
+	 */
+	private void reportFrameRate()
+	{
+		if (framePeriod != 0.0)
+			return;
+		
+		framesThisSecond++;
+		long now = System.nanoTime();
+		if (now - fpsReportTime >= 1_000_000_000L)
+		{
+			System.out.printf("%d fps (%d enemies)%n", framesThisSecond, state.getNumEnemies());
+			framesThisSecond = 0;
+			fpsReportTime = now;
+		}
+	}
+	
+	/**
+	 * Prints how long it took to get the first frame up that the player can use,
+	 * which is the first frame drawn once every image has been preloaded. Only
+	 * prints once.
+	 */
+	private void reportFirstFrame()
+	{
+		if (firstFrameReported || !preload.isDone())
+			return;
+		
+		firstFrameReported = true;
+		System.out.printf("First interactive frame after %.0f ms (images preloaded in %.0f ms)%n",
+				(System.nanoTime() - launchTime) / 1_000_000.0, preloadTime / 1_000_000.0);
+	}
+	
+	/**
+	 * Runs a single fixed tick of the windowed game, stopping the loop once the
+	 * game has been decided.
+	 */
+	private void tick()
+	{
 		// If the lives dropped below 0 and tripped the inPlay flag,
-		// then stop the timer
+		// then stop the loop
 		if (state.isOver())
 		{
-			timer.stop();
+			running = false;
 		}
 		
 		// If no more enemies are coming, and there are no enemies alive,
-		// stop the timer and display the win screen
+		// stop the loop and display the win screen
 		if (!state.moreEnemiesComing() && state.getNumEnemies() == 0)
 		{
 			state.addGameObject(new ScreenWin(state));
-			timer.stop();
+			running = false;
 		}
-
-		// Get the current runtime of the game in nanoseconds
-		long currentTime = System.nanoTime();
 		
-		// If the enemy generation text file has more data, and we've passed the next
-		// spawn time, call the addEnemies method and bump the next spawn time by a
-		// quarter second.
-		if (enemyLineUp.hasNext() && state.getTime() > nextSpawnTime && state.isInPlay())
+		// Advance the game
+		step(TICK);
+	}
+	
+	/**
+	 * Advances the game by one tick: reads the mouse, spawns any enemies that are due, moves
+	 * the clock forward, and updates every game object. Nothing is drawn here, so
+	 * this method can be called with or without a view.
+	 * 
+	 * @param elapsedTime the number of seconds to advance the game by
+	 */
+	public void step(double elapsedTime)
+	{
+		long tickStart = System.nanoTime();
+		long allocatedBefore = AllocationCounter.currentThreadBytes();
+		
+		// Pick up whatever the mouse has done since the last tick
+		state.latchMouseInput();
+		
+		// Spawn everything in the enemy generation text file that has come due,
+		// however much that is
+		if (state.isInPlay())
 		{
-			addEnemies();
-			nextSpawnTime += QUARTER;
-		}		
+			spawner.spawnDue(state.getTime());
+		}
 		
-		// Calculate time since last tick- used in updating positions of Animatable
-		// objects
-		double elapsedTime = (currentTime - previousTime) / BILLION;
-		previousTime = currentTime;
 		state.updateTime(elapsedTime);
 		
 		// Update the game objects
@@ -134,43 +312,19 @@ public class GameControl implements Runnable, ActionListener
 		
 		// Consume click event if no object did so
 		state.consumeMouseClick();
-	
-		// Draw/redraw the game objects
-		view.repaint();
+		
+		state.getProfiler().recordTick(System.nanoTime() - tickStart,
+				AllocationCounter.currentThreadBytes() - allocatedBefore);
 	}
 	
 	/**
-	 * This method adds <code>Enemy</code> objects to the <code>List</code> of
-	 * <code>Animatable</code> objects in <code>GameState</code>, the type of
-	 * <code>Enemy</code> being determined by the data found in the enemy generation
-	 * text file.
+	 * Returns true once the game has been decided- either the player is out of
+	 * lives, or no more enemies are coming and none are left alive.
+	 * 
+	 * @return true if the game is finished, false otherwise
 	 */
-	public void addEnemies()
+	public boolean isFinished()
 	{
-		// Read in another digit from the enemy generation text file,
-		// and add an enemy accordingly:
-		// 1 = pink, 2 = blue, 3 = green, 0 = spacer
-		// 9 marks the end of the enemy generation file
-		// Two-digits starting with 1 (11, 12, 13, etc) divide between waves
-		int scanDigit = enemyLineUp.nextInt();
-		switch(scanDigit)
-		{
-			case 0: 
-				break;
-			case 1:
-				state.addGameObject(new EnemyPink(0.0, state));
-				break;
-			case 2:
-				state.addGameObject(new EnemyBlue(0.0, state));
-				break;
-			case 3:
-				state.addGameObject(new EnemyGreen(0.0, state));
-				break;
-			case 9:
-				state.noMoreEnemies();
-				break;
-			default:
-				state.addGameObject(new ScreenWaveTitle(state, scanDigit));
-		}
+		return state.isOver() || (!state.moreEnemiesComing() && state.getNumEnemies() == 0);
 	}
 }
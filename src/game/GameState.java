@@ -3,17 +3,22 @@ package game;
 import java.awt.Graphics;
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import enemy.Enemy;
+import enemy.EnemyPool;
 import screen.ScreenGameOver;
 
 /**
  * A GameState object represents the current 'state' of the game. This includes
  * things like score, tower positions, etc., but also includes smaller details
  * like mouse location and mouse click information (that we have recorded).
- * Also, this object will hold a List of all the things that move, update, or
- * interact with the screen.
+ * Also, this object will hold Lists of all the things that move, update, or
+ * interact with the screen, grouped by <code>Layer</code>.
  * 
  * The idea is that everything that is unique about a single game's session is
  * here. If you were to save everything stored here to a file, and then reload
@@ -29,9 +34,21 @@ public class GameState
 {
 	// Fields
 	// object list fields
-	private List<Animatable> gameObjects;
-	private List<Animatable> removeQueue;
+	private List<List<Animatable>> layers;	// every object in the game, one list per Layer, in draw order
+	private List<List<Animatable>> updated;	// the same, leaving out the Idle objects, in update order
+	private List<Enemy> enemies;			// the ENEMIES layer again, typed, so targeting doesn't have to filter
+	private Set<Animatable> removeQueue;	// keyed by identity, so checking and removing are constant time
 	private List<Animatable> addQueue;
+	private List<Collider> colliders;		// attacks waiting to be checked against the enemies this update
+	private TimingWheel timers;				// cooldowns and lifetimes waiting to run out
+	
+	// enemy storage and lookup fields
+	private EnemyPool enemyPool;
+	private EnemyGrid enemyGrid;
+	private EnemyOrder enemyOrder;		// the same enemies, furthest along the path first
+	
+	// profiling fields
+	private Profiler profiler;
 	
 	// game info fields
 	private double timeSinceStart;
@@ -42,7 +59,18 @@ public class GameState
 	private boolean isOver;
 	private boolean moreEnemies;
 	
-	// mouse info fields
+	// speed fields
+	private volatile int speed;		// how many times faster than real time the game runs- set from Swing
+	private static final int[] SPEEDS = {1, 2, 4, 16};
+	
+	// drawing fields
+	private int staticArtVersion;	// counts changes to the StaticArt objects in the game, so the view can redraw them
+	private double interpolation;	// how far between the last two ticks to draw moving objects, 0.0 to 1.0
+	
+	// mouse info fields- Swing writes the pending values, and they are latched
+	// at the start of each tick so every object in the tick sees the same mouse
+	private volatile long pendingMouse;		// x in the high half, y in the low half, so both are read together
+	private AtomicBoolean pendingClick;
 	private int mouseX, mouseY;
 	private boolean mouseClicked;
 
@@ -53,9 +81,23 @@ public class GameState
 	 */
 	public GameState()
 	{
-		gameObjects = new ArrayList<Animatable>();
-		removeQueue = new ArrayList<Animatable>();
+		layers  = new ArrayList<List<Animatable>>();
+		updated = new ArrayList<List<Animatable>>();
+		for (int i = 0; i < Layer.values().length; i++)
+		{
+			layers.add(new ArrayList<Animatable>());
+			updated.add(new ArrayList<Animatable>());
+		}
+		enemies     = new ArrayList<Enemy>();
+		removeQueue = Collections.newSetFromMap(new IdentityHashMap<Animatable, Boolean>());
 		addQueue    = new ArrayList<Animatable>();
+		colliders   = new ArrayList<Collider>();
+		timers      = new TimingWheel(GameControl.TICK);
+		
+		enemyPool   = new EnemyPool(this);
+		enemyGrid   = new EnemyGrid();
+		enemyOrder  = new EnemyOrder();
+		profiler    = new Profiler();
 		
 		timeSinceStart = 0.0;
 		credits = 100;
@@ -65,6 +107,12 @@ public class GameState
 		isOver = false;
 		moreEnemies = true;
 		
+		speed = 1;
+		staticArtVersion = 0;
+		interpolation = 1.0;
+		
+		pendingMouse = 0L;
+		pendingClick = new AtomicBoolean(false);
 		mouseX = mouseY = 0;
 		mouseClicked = false;
 	}
@@ -93,6 +141,32 @@ public class GameState
 		removeQueue.add(object);
 	}
 	
+	/**
+	 * Schedules a callback for once more than the specified amount of game time
+	 * has passed. Callbacks go off at the start of an update, before any object
+	 * is updated, on the same update an object counting its own elapsed time
+	 * would see it go past the delay.
+	 * 
+	 * @param t     the object to call back
+	 * @param delay how long to wait, in seconds
+	 */
+	public void schedule(Timed t, double delay)
+	{
+		timers.schedule(t, delay);
+	}
+	
+	/**
+	 * Hands an attack to this update's collision pass. Called by colliders from
+	 * their update method, once per update for as long as they can still hit
+	 * something.
+	 * 
+	 * @param c the <code>Collider</code> to check against the enemies
+	 */
+	public void addCollider(Collider c)
+	{
+		colliders.add(c);
+	}
+	
 	/**
 	 * Returns true if the specified <code>Enemy</code> has already been added to
 	 * the <code>List</code> of objects to be removed from the game.
@@ -107,20 +181,60 @@ public class GameState
 
 	/**
 	 * Updates pertinent info for each <code>Animatable</code> object currently
-	 * stored in the list. This method is called repeatedly from the actionPerformed
-	 * method in GameControl.
+	 * stored in the list, except the <code>Idle</code> ones. This method is called
+	 * repeatedly from the actionPerformed method in GameControl.
 	 */
 	public void updateAll(double elapsedTime)
 	{
+		long updateStart = System.nanoTime();
+		
 		// If the game isn't over
 		if (!isOver)
 		{
-			// Update all objects in main List
-			for (Animatable a : gameObjects)
+			// Move every enemy first, so everything else in this update sees where
+			// they are now
+			enemyPool.move(enemies, elapsedTime);
+			
+			// Index where every enemy is, so towers and effects can look them up quickly.
+			// Every lookup during this update sees the enemies that were alive when
+			// it started.
+			enemyGrid.rebuild(enemies);
+			enemyOrder.sort();
+			
+			// Run out the clock on every cooldown and lifetime, calling back the ones
+			// that are up
+			boolean timeEach = profiler.isDetailed();
+			long timersStart = System.nanoTime();
+			timers.advance(elapsedTime);
+			if (timeEach)
 			{
-				a.update(elapsedTime);
+				profiler.recordObjectUpdate(TimingWheel.class, System.nanoTime() - timersStart);
 			}
 			
+			// Update all objects that have something to do, layer by layer (timing
+			// each one if the profiler wants the breakdown by class)
+			for (int i = 0; i < updated.size(); i++)
+			{
+				List<Animatable> layer = updated.get(i);
+				for (int j = 0; j < layer.size(); j++)
+				{
+					Animatable a = layer.get(j);
+					if (timeEach)
+					{
+						long start = System.nanoTime();
+						a.update(elapsedTime);
+						profiler.recordObjectUpdate(a.getClass(), System.nanoTime() - start);
+					}
+					else
+					{
+						a.update(elapsedTime);
+					}
+				}
+			}
+			
+			// Now that everything has moved, check every attack against the enemies
+			resolveCollisions();
+			
 			// If the player is out of lives, make sure the counter stays at 0,
 			// trip the inPlay and isOver flags, and add the ScreenGameOver object
 			if (lives <= 0)
@@ -131,72 +245,360 @@ public class GameState
 				addGameObject(new ScreenGameOver());
 			}
 			
-			// Remove all objects queued for removal
-			gameObjects.removeAll(removeQueue);
-			removeQueue.clear();
+			// Remove all objects queued for removal, in a single pass over each list
+			if (!removeQueue.isEmpty())
+			{
+				for (List<Animatable> layer : layers)
+				{
+					layer.removeIf(removeQueue::contains);
+				}
+				for (List<Animatable> layer : updated)
+				{
+					layer.removeIf(removeQueue::contains);
+				}
+				enemies.removeIf(removeQueue::contains);
+				enemyOrder.removeAll(removeQueue);
+				
+				// Dead enemies are out of every list now, so the pool can reuse them
+				for (Animatable a : removeQueue)
+				{
+					if (a instanceof Enemy)
+					{
+						enemyPool.release((Enemy)a);
+					}
+					if (a instanceof StaticArt)
+					{
+						staticArtVersion++;
+					}
+				}
+				removeQueue.clear();
+			}
 			
-			// Add all objects queued for adding
-			gameObjects.addAll(addQueue);
+			// Add all objects queued for adding, each to its own layer
+			for (Animatable a : addQueue)
+			{
+				Layer layer = Layer.of(a);
+				layers.get(layer.ordinal()).add(a);
+				if (!(a instanceof Idle))
+				{
+					updated.get(layer.ordinal()).add(a);
+				}
+				if (layer == Layer.ENEMIES)
+				{
+					enemies.add((Enemy)a);
+					enemyOrder.add((Enemy)a);
+				}
+				if (a instanceof StaticArt)
+				{
+					staticArtVersion++;
+				}
+			}
 			addQueue.clear();
 		}
+		
+		profiler.recordUpdate(System.nanoTime() - updateStart);
 	}
 
 	/**
-	 * Draws each <code>Animatable</code> object currently stored in the list. This
-	 * method is called from the paint() method in GameView, which is called
-	 * repeatedly from the actionPerformed method in GameControl.
+	 * Checks every collider added this update against the enemies, in one pass
+	 * over the grid. For each collider, the grid picks out the nearest enemy in
+	 * its reach that hasn't already been killed this update (the broad phase),
+	 * then the collider decides whether it actually touches it (the narrow
+	 * phase). Skipping the dead means two attacks can't both be spent on the same
+	 * enemy.
+	 */
+	private void resolveCollisions()
+	{
+		long start = System.nanoTime();
+		
+		for (int i = 0; i < colliders.size(); i++)
+		{
+			Collider c = colliders.get(i);
+			profiler.countNearestQuery();
+			Enemy victim = enemyGrid.nearestWithin(c.getCenter(), c.getReach(), removeQueue);
+			if (victim != null && c.touches(victim))
+			{
+				c.hit(victim);
+			}
+		}
+		colliders.clear();
+		
+		if (profiler.isDetailed())
+		{
+			profiler.recordObjectUpdate(Collider.class, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Draws each <code>Animatable</code> object currently stored in the lists,
+	 * one layer at a time from the bottom up. This method is called from the
+	 * paint() method in GameView, which is called repeatedly from the
+	 * actionPerformed method in GameControl.
 	 * 
 	 * @param g the <code>Graphics</code> context in which to paint
 	 */
 	public void drawAll(Graphics g, GameView view)
 	{
-		for (Animatable a : gameObjects)
+		// Indexed loops, so drawing a frame doesn't build any iterators
+		for (int i = 0; i < layers.size(); i++)
 		{
-			a.draw(g, view);
+			List<Animatable> layer = layers.get(i);
+			for (int j = 0; j < layer.size(); j++)
+			{
+				layer.get(j).draw(g, view);
+			}
 		}
 	}
 	
 	/**
-	 * Finds the nearest Enemy to a specified <code>Point</code>.
+	 * Draws the unchanging art of every <code>StaticArt</code> object, one layer
+	 * at a time from the bottom up. Called by <code>GameView</code> when it
+	 * rebuilds its static layer.
 	 * 
-	 * @param p the <code>Point</code> to be used as the origin
-	 * @return the nearest Enemy object to that <code>Point</code>
+	 * @param g the <code>Graphics</code> context in which to paint
 	 */
-	public Enemy nearestEnemy(Point p)
+	public void drawStaticArt(Graphics g, GameView view)
 	{
-		// no nearest enemy at first
-		Enemy currentNearest = null;
-		
-		for (Animatable a : gameObjects) // every animatable object in the game
+		for (int i = 0; i < layers.size(); i++)
 		{
-			if (a instanceof Enemy) // only do stuff it we're looking at an Enemy object
+			List<Animatable> layer = layers.get(i);
+			for (int j = 0; j < layer.size(); j++)
 			{
-				Enemy currentEnemy = (Enemy)a;
-				if (currentNearest == null) // if it's the first one, it's the current nearest
+				if (layer.get(j) instanceof StaticArt)
 				{
-					currentNearest = currentEnemy;
+					((StaticArt)layer.get(j)).drawStatic(g, view);
 				}
-				else
+			}
+		}
+	}
+	
+	/**
+	 * Marks the area every object will draw over in the next frame. An object
+	 * that can't say (one that isn't <code>Bounded</code>) marks the whole
+	 * window.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnAreas(DirtyRegion region)
+	{
+		for (int i = 0; i < layers.size(); i++)
+		{
+			List<Animatable> layer = layers.get(i);
+			for (int j = 0; j < layer.size(); j++)
+			{
+				Animatable a = layer.get(j);
+				if (!(a instanceof Bounded))
 				{
-					if (p.distance(currentEnemy.getPosition()) < p.distance(currentNearest.getPosition()))
-					{
-						currentNearest = currentEnemy;
-					}
-				}				
+					region.addAll();
+					return;
+				}
+				((Bounded)a).addDrawnArea(region);
+				
+				// Once every tile is marked there's nothing left to add (checked now and
+				// then, so crowded layers can stop early)
+				if ((j & 63) == 63 && region.isFull())
+					return;
 			}
 		}
-		
-		return currentNearest;
+	}
+	
+	/**
+	 * Returns the objects in a single layer, in the order they were added. The
+	 * returned list must not be changed; use <code>addGameObject()</code> and
+	 * <code>removeGameObject()</code> instead.
+	 * 
+	 * @param layer the layer to look at
+	 * @return the objects in that layer
+	 */
+	public List<Animatable> getLayer(Layer layer)
+	{
+		return Collections.unmodifiableList(layers.get(layer.ordinal()));
+	}
+	
+	/**
+	 * Returns every enemy currently in the game. The returned list must not be
+	 * changed.
+	 * 
+	 * @return the enemies, in the order they were added
+	 */
+	public List<Enemy> getEnemies()
+	{
+		return Collections.unmodifiableList(enemies);
+	}
+	
+	/**
+	 * Finds the nearest Enemy to a specified <code>Point</code>.
+	 * 
+	 * @param p the <code>Point</code> to be used as the origin
+	 * @return the nearest Enemy object to that <code>Point</code>
+	 */
+	public Enemy nearestEnemy(Point p)
+	{
+		profiler.countNearestQuery();
+		return enemyGrid.nearest(p);
+	}
+	
+	/**
+	 * Finds the nearest Enemy that is closer than <code>radius</code> to a
+	 * specified <code>Point</code>. Only the part of the field within range is
+	 * searched, so this is cheaper than <code>nearestEnemy()</code> followed by a
+	 * distance check.
+	 * 
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @return the nearest Enemy in range, or null if there isn't one
+	 */
+	public Enemy nearestEnemyWithin(Point p, double radius)
+	{
+		profiler.countNearestQuery();
+		return enemyGrid.nearestWithin(p, radius);
+	}
+	
+	/**
+	 * Finds the Enemy furthest along the path that is closer than
+	 * <code>radius</code> to a specified <code>Point</code>.
+	 * 
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param spans  the stretches of the path in range, from
+	 *               <code>Path.spansWithin()</code>
+	 * @return the first Enemy in range, or null if there isn't one
+	 */
+	public Enemy firstEnemyWithin(Point p, double radius, double[] spans)
+	{
+		profiler.countTargetingQuery();
+		return enemyOrder.first(spans, p, radius, null);
+	}
+	
+	/**
+	 * Finds the Enemy least far along the path that is closer than
+	 * <code>radius</code> to a specified <code>Point</code>.
+	 * 
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param spans  the stretches of the path in range, from
+	 *               <code>Path.spansWithin()</code>
+	 * @return the last Enemy in range, or null if there isn't one
+	 */
+	public Enemy lastEnemyWithin(Point p, double radius, double[] spans)
+	{
+		profiler.countTargetingQuery();
+		return enemyOrder.last(spans, p, radius, null);
+	}
+	
+	/**
+	 * Finds the toughest Enemy (green, then blue, then pink) that is closer than
+	 * <code>radius</code> to a specified <code>Point</code>, breaking ties by
+	 * which is furthest along the path.
+	 * 
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @param spans  the stretches of the path in range, from
+	 *               <code>Path.spansWithin()</code>
+	 * @return the strongest Enemy in range, or null if there isn't one
+	 */
+	public Enemy strongestEnemyWithin(Point p, double radius, double[] spans)
+	{
+		profiler.countTargetingQuery();
+		return enemyOrder.strongest(spans, p, radius, null);
+	}
+	
+	/**
+	 * Finds every Enemy that is closer than <code>radius</code> to a specified
+	 * <code>Point</code>.
+	 * 
+	 * @param p      the <code>Point</code> to be used as the origin
+	 * @param radius the search distance, in pixels
+	 * @return a new <code>List</code> of the enemies in range
+	 */
+	public List<Enemy> enemiesWithin(Point p, double radius)
+	{
+		profiler.countNearestQuery();
+		List<Enemy> inRange = new ArrayList<Enemy>();
+		enemyGrid.collectWithin(p, radius, inRange);
+		return inRange;
 	}
 	
 	
 	// ------------------------------- A C C E S S O R S   A N D   M U T A T O R S ------------------------------- //
 	
+	// ENEMY POOL
+	public Profiler getProfiler()
+	{
+		return profiler;
+	}
+	
+	public EnemyPool getEnemyPool()
+	{
+		return enemyPool;
+	}
+	
+	// SPEED
+	public int getSpeed()
+	{
+		return speed;
+	}
+	
+	/**
+	 * Moves on to the next fast-forward speed: 1x, 2x, 4x, 16x, then back to 1x.
+	 * Called from Swing when the fast-forward key is pressed.
+	 */
+	public void cycleSpeed()
+	{
+		int next = 0;
+		for (int i = 0; i < SPEEDS.length; i++)
+		{
+			if (SPEEDS[i] == speed)
+				next = (i + 1) % SPEEDS.length;
+		}
+		speed = SPEEDS[next];
+	}
+	
+	// DRAWING
+	public int getStaticArtVersion()
+	{
+		return staticArtVersion;
+	}
+	
+	public double getInterpolation()
+	{
+		return interpolation;
+	}
+	
+	public void setInterpolation(double interpolation)
+	{
+		this.interpolation = interpolation;
+	}
+	
 	// MOUSE STUFF
+	/**
+	 * Records where the mouse is. Called from Swing- the simulation picks it up
+	 * at the start of the next tick.
+	 * 
+	 * @param mouseX the x coordinate of the mouse
+	 * @param mouseY the y coordinate of the mouse
+	 */
 	public void setMousePosition(int mouseX, int mouseY)
 	{
-		this.mouseX = mouseX;
-		this.mouseY = mouseY;
+		pendingMouse = ((long)mouseX << 32) | (mouseY & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Copies the latest mouse position, and any click made since the last tick,
+	 * into the fields the game objects read. Called once at the start of each
+	 * tick, on the simulation thread. A click that lands mid-tick waits for the
+	 * next one instead of being consumed before anything sees it.
+	 */
+	public void latchMouseInput()
+	{
+		long mouse = pendingMouse;
+		mouseX = (int)(mouse >> 32);
+		mouseY = (int)mouse;
+		
+		if (pendingClick.getAndSet(false))
+		{
+			mouseClicked = true;
+		}
 	}
 	
 	public int getMouseX()
@@ -211,7 +613,7 @@ public class GameState
 	
 	public void setMouseClicked()
 	{
-		mouseClicked = true;
+		pendingClick.set(true);
 	}
 	
 	public boolean isMouseClicked()
@@ -242,6 +644,23 @@ public class GameState
 		timeSinceStart = 0;
 	}
 	
+	/**
+	 * Returns how much game time has gone by since the game was built, as counted
+	 * by the scheduled callbacks. Unlike <code>getTime()</code>, this is never
+	 * reset, so it can be used to work out how long ago something happened.
+	 * 
+	 * @return the time, in seconds
+	 */
+	public double getTimerTime()
+	{
+		return timers.getTime();
+	}
+	
+	public int getWaitingTimerCount()
+	{
+		return timers.getWaitingCount();
+	}
+	
 	// CREDITS
 	public int getCredits()
 	{
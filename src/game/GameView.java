@@ -1,13 +1,25 @@
 package game;
 
 import java.awt.AlphaComposite;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Cursor;
 import java.awt.Dimension;
+import java.awt.DisplayMode;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -25,10 +37,32 @@ import javax.swing.JPanel;
  * was placed in GameView for convenience. We'll separate most of this out in
  * checkpoint #2.
  * 
+ * The game is drawn off-screen, on the simulation thread, by
+ * <code>renderFrame()</code>. Swing's <code>paint()</code> only copies the
+ * most recently finished frame onto the window. The two threads share three
+ * frame images (a triple buffer): one being drawn, one being shown, and the
+ * newest finished one waiting in between. They trade images with a single
+ * atomic swap, so neither thread ever waits on the other or sees a frame
+ * that is only half drawn.
+ * 
+ * Artwork that never changes (see <code>StaticArt</code>) is drawn once into
+ * a cached image, which is copied under each frame instead of being drawn
+ * again. Frames are also only redrawn where something changed: every object
+ * marks the tiles it draws over (see <code>Bounded</code>), and only those
+ * tiles, plus the ones drawn over last frame, are redrawn and repainted. Each
+ * frame image remembers which tiles have changed since it was last drawn
+ * into, since it may be a few frames behind.
+ * 
+ * Started with <code>-Drender.mode=active</code>, the window holds a
+ * <code>Canvas</code> with a <code>BufferStrategy</code> (page flipping if
+ * the system has it, copying otherwise) instead of this panel, and the
+ * simulation thread puts each frame on screen itself, without going through
+ * Swing's repaint at all.
+ * 
  * @author Caden Erickson
- * @version December 01, 2021
+ * @version December 22, 2021
  */
-public class GameView extends JPanel implements MouseListener, MouseMotionListener
+public class GameView extends JPanel implements MouseListener, MouseMotionListener, KeyListener
 {
 	// This constant is needed to get rid of a warning. It won't matter to us.
 	private static final long serialVersionUID = 1L;
@@ -36,6 +70,46 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	// Fields -- These variables will be part of the GameView object (that we make
 	// in GameControl).
 	private GameState state;
+	
+	// frame fields
+	private BufferedImage[] frames;		// the three frame images
+	private Graphics2D[] frameGraphics;	// one drawing context per image, kept so frames don't build new ones
+	private int drawingFrame;			// the image renderFrame() draws into- only the simulation thread touches it
+	private int showingFrame;			// the image paint() copies- only Swing touches it
+	private AtomicInteger waitingFrame;	// the newest finished image, plus the NEW_FRAME flag if paint() hasn't taken it
+	private static final int NEW_FRAME = 4;
+	private static final int WIDTH = 855, HEIGHT = 600;
+	public static final int FIELD_WIDTH = 600, FIELD_HEIGHT = 600;	// the play field, left of the menu
+	private long frameAllocation;		// bytes allocated while drawing the last frame
+	
+	// static layer fields
+	private BufferedImage staticLayer;	// every StaticArt object, drawn once, in the same format as the frames
+	private int staticVersion;			// which version of the game's static art is in staticLayer
+	
+	// dirty region fields- only touched by the simulation thread
+	private DirtyRegion drawnArea;		// the tiles drawn over this frame
+	private DirtyRegion lastDrawnArea;	// the tiles drawn over last frame, which need erasing
+	private DirtyRegion frameChange;	// the tiles that differ from the last frame
+	private DirtyRegion[] staleAreas;	// for each frame image, the tiles changed since it was drawn into
+	private Rectangle[] redrawRects;	// the stale tiles, split into rectangles
+	private Rectangle repaintArea;
+	private static final int MAX_REDRAW_RECTS = 8;		// past this, one rectangle around them all is redrawn
+	private static final double FULL_REDRAW_SHARE = 0.6;	// past this share of the window, it's all redrawn
+	
+	// active rendering fields
+	private static final boolean ACTIVE = "active".equals(System.getProperty("render.mode"));
+	private Canvas canvas;				// the window's drawing surface in active mode, null otherwise
+	private BufferStrategy strategy;
+	
+	// every opacity from 0 to 255, so fading images doesn't build a new composite each draw
+	private static final AlphaComposite[] ALPHA_RAMP = new AlphaComposite[256];
+	static
+	{
+		for (int i = 0; i < ALPHA_RAMP.length; i++)
+		{
+			ALPHA_RAMP[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / 255f);
+		}
+	}
 
 	/**
 	 * Our GameView constructor. The 'view' is the GUI (Graphical User Interface)
@@ -43,29 +117,291 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	 * 'drawing'.
 	 */
 	public GameView(GameState state)
+	{
+		this(state, true);
+	}
+	
+	/**
+	 * GameView constructor that can skip building the window. A view with no
+	 * window can still be used to draw the game into an off-screen image (for
+	 * example in benchmarks), and works on machines with no display.
+	 * 
+	 * @param state      the current <code>GameState</code> object
+	 * @param openWindow true to build and show the JFrame, false to skip it
+	 */
+	public GameView(GameState state, boolean openWindow)
 	{
 		this.state = state;
+		
+		// Build the frame images, starting out black
+		frames = new BufferedImage[3];
+		frameGraphics = new Graphics2D[3];
+		for (int i = 0; i < frames.length; i++)
+		{
+			frames[i] = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+			frameGraphics[i] = frames[i].createGraphics();
+		}
+		drawingFrame = 0;
+		waitingFrame = new AtomicInteger(1);
+		showingFrame = 2;
+		
+		// Nothing static has been drawn yet, and every frame needs drawing in full
+		staticLayer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		staticVersion = -1;
+		drawnArea = new DirtyRegion(WIDTH, HEIGHT);
+		lastDrawnArea = new DirtyRegion(WIDTH, HEIGHT);
+		frameChange = new DirtyRegion(WIDTH, HEIGHT);
+		staleAreas = new DirtyRegion[frames.length];
+		for (int i = 0; i < staleAreas.length; i++)
+		{
+			staleAreas[i] = new DirtyRegion(WIDTH, HEIGHT);
+			staleAreas[i].addAll();
+		}
+		redrawRects = new Rectangle[MAX_REDRAW_RECTS];
+		for (int i = 0; i < redrawRects.length; i++)
+		{
+			redrawRects[i] = new Rectangle();
+		}
+		repaintArea = new Rectangle();
+
+		// Set the size of 'this' panel to match the size of the backdrop.
+		Dimension d = new Dimension(WIDTH, HEIGHT);
+		this.setMinimumSize(d);
+		this.setPreferredSize(d);
+		this.setMaximumSize(d);
+		
+		if (!openWindow)
+			return;
 
 		// Build the frame. The frame object represents the application 'window'.
 		JFrame frame = new JFrame("Tower Defense 2021");
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		
+		if (ACTIVE)
+		{
+			// Draw on a canvas instead, which the simulation thread flips itself
+			canvas = new Canvas();
+			canvas.setPreferredSize(d);
+			canvas.setIgnoreRepaint(true);
+			frame.setIgnoreRepaint(true);
+			frame.add(canvas);
+			frame.setResizable(false);
+			frame.pack();
+			frame.setVisible(true);
+			
+			canvas.createBufferStrategy(2);
+			strategy = canvas.getBufferStrategy();
+			listenTo(canvas);
+			return;
+		}
 
 		// Add a drawing area to the frame (a panel). Note that 'this' object IS the
 		// panel that we need, so we add it.
 		frame.setContentPane(this);
 
-		// Set the size of 'this' panel to match the size of the backdrop.
-		Dimension d = new Dimension(855, 600);
-		this.setMinimumSize(d);
-		this.setPreferredSize(d);
-		this.setMaximumSize(d);
-
 		// Allow the JFrame to layout the window (by 'packing' it) and make it visible.
 		frame.pack();
 		frame.setVisible(true);
 		
-		this.addMouseListener(this);
-		this.addMouseMotionListener(this);
+		listenTo(this);
+	}
+	
+	/**
+	 * Sends the mouse and key events of the passed component (the panel, or the
+	 * canvas in active mode) to this object.
+	 */
+	private void listenTo(java.awt.Component component)
+	{
+		component.addMouseListener(this);
+		component.addMouseMotionListener(this);
+		
+		// Listen for the profiling overlay's toggle key
+		component.setFocusable(true);
+		component.addKeyListener(this);
+		component.requestFocusInWindow();
+	}
+
+	/**
+	 * Draws the changed parts of the game into an off-screen frame, then hands
+	 * it over as the newest frame and asks Swing to repaint the parts that
+	 * changed. Called from the simulation thread, so the game is never read
+	 * while it is being updated.
+	 */
+	public void renderFrame()
+	{
+		long frameStart = System.nanoTime();
+		long allocatedBefore = AllocationCounter.currentThreadBytes();
+		Profiler profiler = state.getProfiler();
+		
+		// Work out what changed since the last frame: whatever is drawn now, and
+		// whatever was drawn last time (it may have moved or gone). If the static
+		// art changed, so did everything.
+		frameChange.clear();
+		if (state.getStaticArtVersion() != staticVersion)
+		{
+			composeStaticLayer();
+			frameChange.addAll();
+		}
+		drawnArea.clear();
+		state.addDrawnAreas(drawnArea);
+		profiler.addOverlayArea(drawnArea);
+		frameChange.add(drawnArea);
+		frameChange.add(lastDrawnArea);
+		lastDrawnArea.set(drawnArea);
+		
+		// Every frame image needs those tiles brought up to date before it's shown again
+		for (int i = 0; i < staleAreas.length; i++)
+		{
+			staleAreas[i].add(frameChange);
+		}
+		
+		// Redraw the stale tiles of this frame image- the static layer, then
+		// everything else on top, clipped to one rectangle at a time
+		Graphics2D g = frameGraphics[drawingFrame];
+		DirtyRegion stale = staleAreas[drawingFrame];
+		if (!stale.isEmpty())
+		{
+			int count = -1;
+			if (stale.getTileCount() < stale.getTotalTiles() * FULL_REDRAW_SHARE)
+			{
+				count = stale.getRectangles(redrawRects);
+			}
+			if (count < 0)
+			{
+				count = 1;
+				stale.getBounds(redrawRects[0]);
+			}
+			
+			for (int i = 0; i < count; i++)
+			{
+				Rectangle r = redrawRects[i];
+				g.setClip(r.x, r.y, r.width, r.height);
+				g.drawImage(staticLayer, 0, 0, null);
+				state.drawAll(g, this);
+			}
+			g.setClip(null);
+			stale.clear();
+		}
+		
+		frameAllocation = AllocationCounter.currentThreadBytes() - allocatedBefore;
+		profiler.recordFrame(System.nanoTime() - frameStart, frameAllocation);
+		
+		// The profiling overlay goes on top, and isn't counted in the frame's numbers
+		profiler.drawOverlay(g);
+		
+		// In active mode, put the frame on screen right away
+		if (strategy != null)
+		{
+			present(frames[drawingFrame]);
+		}
+		
+		// Leave the finished frame waiting, and take back whichever image was
+		// waiting before (either never shown, or already given back by paint())
+		drawingFrame = waitingFrame.getAndSet(drawingFrame | NEW_FRAME) & ~NEW_FRAME;
+		if (strategy != null)
+			return;
+		
+		// Only the changed part of the window needs copying to the screen. Swing
+		// merges the areas of repaints that pile up before it gets to them.
+		if (!frameChange.isEmpty())
+		{
+			frameChange.getBounds(repaintArea);
+			repaint(repaintArea.x, repaintArea.y, repaintArea.width, repaintArea.height);
+		}
+	}
+	
+	/**
+	 * Copies a finished frame into the canvas's back buffer and shows it. The
+	 * whole frame is copied, since after a page flip the back buffer's old
+	 * contents can't be counted on. If the buffer's memory is lost partway (the
+	 * system can take it back, e.g. when the display changes), it's drawn again.
+	 */
+	private void present(BufferedImage frame)
+	{
+		do
+		{
+			do
+			{
+				Graphics g = strategy.getDrawGraphics();
+				g.drawImage(frame, 0, 0, null);
+				g.dispose();
+			}
+			while (strategy.contentsRestored());
+			
+			strategy.show();
+		}
+		while (strategy.contentsLost());
+		
+		// Push it out now, rather than whenever the window system gets to it
+		Toolkit.getDefaultToolkit().sync();
+	}
+	
+	/**
+	 * Returns the refresh rate of the screen, for pacing frames to it. Falls
+	 * back to 60 when the system can't say (or there is no screen).
+	 * 
+	 * @return the refresh rate, in frames per second
+	 */
+	public static int getRefreshRate()
+	{
+		if (GraphicsEnvironment.isHeadless())
+			return 60;
+		
+		DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode();
+		int rate = mode.getRefreshRate();
+		return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : rate;
+	}
+	
+	/**
+	 * Sets the mouse cursor over the game, on the canvas in active mode.
+	 * 
+	 * @param cursor the cursor to show
+	 */
+	public void setCursor(Cursor cursor)
+	{
+		super.setCursor(cursor);
+		if (canvas != null)
+		{
+			canvas.setCursor(cursor);
+		}
+	}
+	
+	/**
+	 * Draws every <code>StaticArt</code> object in the game into the static
+	 * layer, over black.
+	 */
+	private void composeStaticLayer()
+	{
+		Graphics2D g = staticLayer.createGraphics();
+		g.setColor(Color.BLACK);
+		g.fillRect(0, 0, WIDTH, HEIGHT);
+		state.drawStaticArt(g, this);
+		g.dispose();
+		
+		staticVersion = state.getStaticArtVersion();
+	}
+
+	/**
+	 * Returns true if this view puts frames on screen itself, through a
+	 * <code>BufferStrategy</code>, rather than through Swing's repaint.
+	 * 
+	 * @return true in active mode
+	 */
+	public boolean isActive()
+	{
+		return strategy != null;
+	}
+
+	/**
+	 * Returns how many bytes of memory were allocated while drawing the last
+	 * frame. Once every sprite and string has been cached this should be 0.
+	 * Always 0 if the JVM can't count allocations.
+	 * 
+	 * @return the byte count for the last frame
+	 */
+	public long getFrameAllocation()
+	{
+		return frameAllocation;
 	}
 
 	/**
@@ -73,12 +409,21 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	 * repaint our window. Use the repaint() method call (on this object) to cause
 	 * this method to be executed.
 	 * 
+	 * The game itself is drawn by <code>renderFrame()</code>; this just copies
+	 * the latest finished frame to the screen. Only the part inside the clip
+	 * (the area passed to repaint()) is actually copied.
+	 * 
 	 * @param g the <code>Graphics</code> context in which to paint
 	 */
 	public void paint(Graphics g)
 	{
-		// Draw everything
-		state.drawAll(g, this);
+		// Trade the image last shown for the newest one, if there is a newer one
+		if ((waitingFrame.get() & NEW_FRAME) != 0)
+		{
+			showingFrame = waitingFrame.getAndSet(showingFrame) & ~NEW_FRAME;
+		}
+		
+		g.drawImage(frames[showingFrame], 0, 0, null);
 	}
 	
 	/**
@@ -93,7 +438,7 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	 */
 	public void drawCenteredImage(Graphics g, String filename, Point p, int width, int height)
 	{
-		g.drawImage(ResourceLoader.getLoader().getImage(filename), p.x-width/2, p.y-height/2, width, height, null);
+		g.drawImage(ResourceLoader.getLoader().getSprite(filename, width, height), p.x-width/2, p.y-height/2, null);
 	}	
 	
 	/**
@@ -112,12 +457,12 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	{
 		// Configure graphics panel to draw image with manipulatable opacity
 		Graphics2D g2d = (Graphics2D)g;
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2d.setComposite(ALPHA_RAMP[Math.max(0, Math.min(255, Math.round(alpha * 255)))]);
         
-		g2d.drawImage(ResourceLoader.getLoader().getImage(filename), p.x-width/2, p.y-height/2, width, height, null);
+		g2d.drawImage(ResourceLoader.getLoader().getSprite(filename, width, height), p.x-width/2, p.y-height/2, null);
 		
 		// Set opacity back to 1.0 so everything else gets drawn normally
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+        g2d.setComposite(AlphaComposite.SrcOver);
 	}	
 	
 	// ------------------- EVENT HANDLERS ------------------- //
@@ -142,4 +487,21 @@ public class GameView extends JPanel implements MouseListener, MouseMotionListen
 	{
 		state.setMousePosition(e.getX(), e.getY());
 	}
+	
+	public void keyPressed(KeyEvent e)
+	{
+		// F3 or P shows and hides the profiling overlay
+		if (e.getKeyCode() == KeyEvent.VK_F3 || e.getKeyCode() == KeyEvent.VK_P)
+		{
+			state.getProfiler().toggleOverlay();
+		}
+		
+		// F steps through the fast-forward speeds
+		if (e.getKeyCode() == KeyEvent.VK_F)
+		{
+			state.cycleSpeed();
+		}
+	}
+	public void keyReleased(KeyEvent e) { }
+	public void keyTyped(KeyEvent e) { }
 }
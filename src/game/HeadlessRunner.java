@@ -0,0 +1,227 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tower.Tower;
+import tower.TowerBleach;
+import tower.TowerSanitizer;
+import tower.TowerSpray;
+
+/**
+ * A <code>HeadlessRunner</code> object plays a whole game with no window. The
+ * game is advanced with a fixed time step as fast as the CPU allows, with
+ * nothing drawn, so tower layouts and wave files can be tried out on machines
+ * that have no display.
+ *
+ * Towers are placed up front, before the first enemy spawns. Once the game is
+ * finished (or the time limit is reached), the runner reports how long it took
+ * and how the game ended.
+ *
+ * Usage: <code>java game.HeadlessRunner [enemyFile] [type@x,y ...]</code>,
+ * where type is spray, bleach or sanitizer. A tower can be followed by its
+ * targeting mode (nearest, first, last or strongest) and/or sticky, each after
+ * a colon. For example:<br>
+ * <code>java game.HeadlessRunner enemies.txt spray@150,300:first bleach@400,150</code>
+ *
+ * @author Caden Erickson
+ * @version December 10, 2021
+ */
+public class HeadlessRunner
+{
+	// Fields
+	// simulation fields
+	private GameState state;
+	private GameControl control;
+	private List<Tower> towers;
+	public static final double TIME_STEP = GameControl.TICK;	// seconds simulated per tick, the same as the windowed game
+
+	// result fields
+	private long ticks;
+	private long wallTime;		// nanoseconds spent running the simulation
+
+	/**
+	 * HeadlessRunner constructor. Builds a fresh game state, already in play, that
+	 * will spawn enemies from the specified file.
+	 *
+	 * @param enemyFile the name of the enemy generation text file to use
+	 */
+	public HeadlessRunner(String enemyFile)
+	{
+		state = new GameState();
+		control = new GameControl(state, enemyFile);
+		towers = new ArrayList<Tower>();
+
+		state.startPlay();
+		state.resetTime();
+	}
+
+	/**
+	 * Places a tower on the field. Credits aren't charged- the layout is taken as
+	 * given.
+	 *
+	 * @param type spray, bleach or sanitizer
+	 * @param x    the x coordinate
+	 * @param y    the y coordinate
+	 */
+	public void addTower(String type, int x, int y)
+	{
+		Tower tower;
+		switch (type)
+		{
+			case "spray":
+				tower = new TowerSpray(state, x, y);
+				break;
+			case "bleach":
+				tower = new TowerBleach(state, x, y);
+				break;
+			case "sanitizer":
+				tower = new TowerSanitizer(state, x, y);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown tower type: " + type);
+		}
+
+		towers.add(tower);
+		state.addGameObject(tower);
+	}
+
+	/**
+	 * Places a tower given as type@x,y, optionally followed by a targeting mode
+	 * and/or sticky, each after a colon (for example spray@150,300 or
+	 * spray@150,300:first:sticky).
+	 * 
+	 * @param spec the tower's type and position, and how it targets
+	 */
+	public void addTower(String spec)
+	{
+		String[] parts = spec.split(":");
+		String[] typeAndPosition = parts[0].split("@");
+		String[] coordinates = typeAndPosition[1].split(",");
+		addTower(typeAndPosition[0], Integer.parseInt(coordinates[0].trim()), Integer.parseInt(coordinates[1].trim()));
+		
+		Tower tower = towers.get(towers.size() - 1);
+		for (int i = 1; i < parts.length; i++)
+		{
+			if (parts[i].equals("sticky"))
+				tower.setSticky(true);
+			else
+				tower.setTargeting(Tower.targetingFor(parts[i]));
+		}
+	}
+
+	/**
+	 * Runs the game until it is finished, or until the specified amount of game
+	 * time has gone by.
+	 *
+	 * @param maxTime the most seconds of game time to simulate
+	 */
+	public void run(double maxTime)
+	{
+		long start = System.nanoTime();
+
+		while (!control.isFinished() && state.getTime() < maxTime)
+		{
+			control.step(TIME_STEP);
+			ticks++;
+		}
+
+		wallTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Returns the number of enemies the specified tower has killed. Sanitizer
+	 * towers don't attack yet, so they always report 0.
+	 *
+	 * @param tower the tower to look up
+	 * @return the tower's kill count
+	 */
+	public static int killsFor(Tower tower)
+	{
+		if (tower instanceof TowerSpray)
+			return ((TowerSpray)tower).getVictims();
+		if (tower instanceof TowerBleach)
+			return ((TowerBleach)tower).getVictims();
+		return 0;
+	}
+
+	/**
+	 * Prints the results of the last run to standard out.
+	 */
+	public void printReport()
+	{
+		double seconds = wallTime / 1_000_000_000.0;
+
+		System.out.printf("Wall time:      %.3f s%n", seconds);
+		System.out.printf("Ticks:          %d (%.0f ticks/sec)%n", ticks, ticks / seconds);
+		System.out.printf("Game time:      %.2f s%n", state.getTime());
+		System.out.printf("Result:         %s%n", getResult());
+		System.out.printf("Lives left:     %d%n", state.getLives());
+		System.out.printf("Credits left:   %d%n", state.getCredits());
+
+		int totalKills = 0;
+		for (Tower t : towers)
+		{
+			int kills = killsFor(t);
+			totalKills += kills;
+			System.out.printf("  %-16s (%3d, %3d) kills: %d%n", t.getClass().getSimpleName(), t.getPosition().x,
+					t.getPosition().y, kills);
+		}
+		System.out.printf("Total kills:    %d%n", totalKills);
+	}
+
+	/**
+	 * Returns how the last run ended.
+	 * 
+	 * @return "lost", "won" or "time limit"
+	 */
+	public String getResult()
+	{
+		return state.isOver() ? "lost" : control.isFinished() ? "won" : "time limit";
+	}
+
+	// ACCESSORS
+	public GameState getState()
+	{
+		return state;
+	}
+
+	public List<Tower> getTowers()
+	{
+		return towers;
+	}
+
+	public long getTicks()
+	{
+		return ticks;
+	}
+
+	public long getWallTime()
+	{
+		return wallTime;
+	}
+
+	/**
+	 * Entry point for running a single headless game from the command line.
+	 *
+	 * @param args the enemy file name, followed by any number of towers given as
+	 *             type@x,y[:mode][:sticky]
+	 */
+	public static void main(String[] args)
+	{
+		// Make sure nothing tries to open a window
+		System.setProperty("java.awt.headless", "true");
+
+		String enemyFile = args.length > 0 ? args[0] : "enemies.txt";
+		HeadlessRunner runner = new HeadlessRunner(enemyFile);
+
+		for (int i = 1; i < args.length; i++)
+		{
+			runner.addTower(args[i]);
+		}
+
+		// An hour of game time is far longer than any wave file runs
+		runner.run(3600);
+		runner.printReport();
+	}
+}
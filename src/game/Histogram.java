@@ -0,0 +1,129 @@
+package game;
+
+/**
+ * A <code>Histogram</code> object counts recorded values (usually durations
+ * in nanoseconds) into buckets, so percentiles can be read back without
+ * keeping every value.
+ *
+ * Values below 64 each get their own bucket. Above that, every power of two
+ * is split into 32 buckets, so any value is reported to within about 3% no
+ * matter how large it is. Recording a value is just a bit of arithmetic and
+ * an array increment- nothing is allocated.
+ *
+ * A histogram is meant to be used from a single thread.
+ *
+ * @author Caden Erickson
+ * @version December 19, 2021
+ */
+public class Histogram
+{
+	// Fields
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private long[] counts;
+	private long total;
+	private long sum;
+	private long max;
+
+	/**
+	 * Histogram constructor. Builds an empty histogram that can hold any
+	 * non-negative long.
+	 */
+	public Histogram()
+	{
+		counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+	}
+
+	/**
+	 * Counts a value. Negative values are counted as 0.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(long value)
+	{
+		if (value < 0)
+			value = 0;
+
+		counts[bucketOf(value)]++;
+		total++;
+		sum += value;
+		if (value > max)
+			max = value;
+	}
+
+	/**
+	 * Returns the value that the specified percentage of the recorded values are
+	 * at or below (rounded up to the top of its bucket).
+	 *
+	 * @param percent the percentile, from 0 to 100
+	 * @return the value at that percentile, or 0 if nothing has been recorded
+	 */
+	public long percentile(double percent)
+	{
+		if (total == 0)
+			return 0;
+
+		long target = Math.max(1, (long)Math.ceil(total * percent / 100.0));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			seen += counts[i];
+			if (seen >= target)
+				return Math.min(max, highestIn(i));
+		}
+		return max;
+	}
+
+	/**
+	 * Empties the histogram.
+	 */
+	public void reset()
+	{
+		java.util.Arrays.fill(counts, 0);
+		total = sum = max = 0;
+	}
+
+	// ACCESSORS
+	public long getCount()
+	{
+		return total;
+	}
+
+	public long getMax()
+	{
+		return max;
+	}
+
+	public double getMean()
+	{
+		return total == 0 ? 0 : (double)sum / total;
+	}
+
+	/**
+	 * Finds the bucket a value falls in.
+	 */
+	private static int bucketOf(long value)
+	{
+		if (value < SUB_BUCKETS)
+			return (int)value;
+
+		// Keep the top 6 bits of the value: the shift picks the power of two, and the
+		// bits below the top one pick the bucket within it
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int)(value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Returns the largest value that falls in the specified bucket.
+	 */
+	private static long highestIn(int bucket)
+	{
+		if (bucket < 2 * SUB_BUCKETS)
+			return bucket;
+
+		int shift = bucket / SUB_BUCKETS - 1;
+		long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((top + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,15 @@
+package game;
+
+/**
+ * Classes that implement the Idle interface have nothing to do from one update
+ * to the next- what they draw comes from the time, and anything else they do
+ * happens when a timer scheduled with <code>GameState.schedule()</code> goes
+ * off. <code>GameState</code> keeps them out of the update pass altogether, so
+ * they cost nothing per tick while they wait.
+ * 
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+public interface Idle
+{
+}
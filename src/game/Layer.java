@@ -0,0 +1,67 @@
+package game;
+
+import effect.Effect;
+import effect.EffectPuddle;
+import effect.EffectSplat;
+import enemy.Enemy;
+import screen.ScreenGameOver;
+import screen.ScreenStart;
+import screen.ScreenWaveTitle;
+import screen.ScreenWin;
+import tower.Tower;
+import tower.TowerBleachMenu;
+import tower.TowerBleachMoving;
+import tower.TowerSanitizerMenu;
+import tower.TowerSanitizerMoving;
+import tower.TowerSprayMenu;
+import tower.TowerSprayMoving;
+
+/**
+ * The <code>Layer</code> enum lists the groups that <code>GameState</code>
+ * sorts its <code>Animatable</code> objects into. Layers are updated and drawn
+ * in the order they're listed here, so each layer is drawn on top of the ones
+ * before it.
+ *
+ * @author Caden Erickson
+ * @version December 12, 2021
+ */
+public enum Layer
+{
+	BACKDROP,		// the path image
+	GROUND_EFFECTS,	// bleach puddles and splats, which lie flat under everything else
+	ENEMIES,
+	TOWERS,			// towers placed on the field
+	PARTICLES,		// spray attacks and other effects in the air
+	UI,				// the menu, its tower icons, and towers being dragged from it
+	SCREENS;		// full-window layers- start, wave titles, game over, win
+
+	/**
+	 * Finds the layer a game object belongs to. This is only worked out once, when
+	 * the object is added to the game.
+	 *
+	 * @param a the object to sort
+	 * @return the object's layer
+	 */
+	public static Layer of(Animatable a)
+	{
+		if (a instanceof Backdrop)
+			return BACKDROP;
+		if (a instanceof EffectPuddle || a instanceof EffectSplat)
+			return GROUND_EFFECTS;
+		if (a instanceof Enemy)
+			return ENEMIES;
+		if (a instanceof TowerSprayMenu || a instanceof TowerBleachMenu || a instanceof TowerSanitizerMenu
+				|| a instanceof TowerSprayMoving || a instanceof TowerBleachMoving || a instanceof TowerSanitizerMoving)
+			return UI;
+		if (a instanceof Tower)
+			return TOWERS;
+		if (a instanceof Effect)
+			return PARTICLES;
+		if (a instanceof ScreenStart || a instanceof ScreenWaveTitle || a instanceof ScreenGameOver
+				|| a instanceof ScreenWin)
+			return SCREENS;
+
+		// The menu, and anything else, goes above the field
+		return UI;
+	}
+}
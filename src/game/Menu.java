@@ -14,15 +14,25 @@ import java.awt.Font;
  * background image of the menu to the screen, add objects and text to display
  * pertinent GameState info, and update those elements appropriately.
  * 
+ * The background image never changes, so it's drawn once into the view's
+ * static layer; only the counters are drawn each frame.
+ * 
  * @author Caden Erickson
- * @version December 06, 2021
+ * @version December 21, 2021
  */
-public class Menu implements Animatable
+public class Menu implements Animatable, StaticArt, Bounded
 {
 	// Fields
 	private GameState state;
 	private boolean objectsAdded;
 	
+	private static final Font COUNTER_FONT = new Font("Arial", Font.BOLD, 20);
+	private static final Font PRICE_FONT = new Font("Arial", Font.PLAIN, 15);
+	
+	// text fields- each string is only rebuilt when the number it shows changes
+	private int shownCredits, shownLives, shownSecond, shownSprayPrice, shownBleachPrice, shownSpeed;
+	private String creditsText, livesText, timeText, sprayPriceText, bleachPriceText, speedText;
+	
 	/**
 	 * Constructor - initializes Menu object
 	 * @param state the current <code>GameState</code> object
@@ -31,6 +41,8 @@ public class Menu implements Animatable
 	{
 		this.state = state;
 		this.objectsAdded = false;
+		
+		shownCredits = shownLives = shownSecond = shownSprayPrice = shownBleachPrice = shownSpeed = Integer.MIN_VALUE;
 	}
 	
 	/** 
@@ -53,43 +65,100 @@ public class Menu implements Animatable
 	}
 
 	/**
-	 * Draws the menu. <br>
+	 * Draws the menu background. <br>
 	 * Loads the image from the <code>ResourceLoader</code> object, and then draws
 	 * it to the passed <code>Graphics</code> object.
 	 * 
 	 * @param g    the <code>Graphics</code> context in which to paint
 	 * @param view the current <code>GameView</code> object, unused here
 	 */
-	public void draw(Graphics g, GameView view)
+	public void drawStatic(Graphics g, GameView view)
 	{
-		// Menu background
 		g.setColor(Color.WHITE);
 		g.fillRect(600, 0, 5, 600);
-		g.drawImage(ResourceLoader.getLoader().getImage("menu.jpg"), 605, 0, 250, 600, null);
-		
-		
+		g.drawImage(ResourceLoader.getLoader().getSprite("menu.jpg", 250, 600), 605, 0, null);
+	}
+	
+	/**
+	 * Marks the areas the counters and prices are drawn in. The boxes are a bit
+	 * wider than the longest text they'll hold.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(650, 12, 205, 30);	// credits and lives
+		region.add(700, 474, 130, 30);	// time and fast-forward speed
+		region.add(650, 190, 180, 22);	// sanitizer and spray prices
+		region.add(650, 349, 60, 22);	// bleach price
+	}
+
+	/**
+	 * Draws the menu's counters and prices. The background is in the static
+	 * layer (see <code>drawStatic()</code>).
+	 * 
+	 * @param g    the <code>Graphics</code> context in which to paint
+	 * @param view the current <code>GameView</code> object, unused here
+	 */
+	public void draw(Graphics g, GameView view)
+	{
 		g.setColor(Color.WHITE);
-		g.setFont(new Font("Arial", Font.BOLD, 20));
+		g.setFont(COUNTER_FONT);
 		
 		// Credits counter
 		int credits = state.getCredits();
-		g.drawString("$"+credits, 655, 35);
+		if (credits != shownCredits)
+		{
+			shownCredits = credits;
+			creditsText = "$"+credits;
+		}
+		g.drawString(creditsText, 655, 35);
 		
 		// Lives counter
 		int lives = state.getLives();
-		g.drawString("Lives: "+lives, 745, 35);
+		if (lives != shownLives)
+		{
+			shownLives = lives;
+			livesText = "Lives: "+lives;
+		}
+		g.drawString(livesText, 745, 35);
 		
 		// Time counter
-		double time = state.getTime();
-		String minutes = String.format("%02d", ((int)time)/60);
-		String seconds = String.format("%02d", (int)(time%60));
-		g.drawString(minutes+":"+seconds, 707, 496);
+		int second = (int)state.getTime();
+		if (second != shownSecond)
+		{
+			shownSecond = second;
+			String minutes = String.format("%02d", second/60);
+			String seconds = String.format("%02d", second%60);
+			timeText = minutes+":"+seconds;
+		}
+		g.drawString(timeText, 707, 496);
+		
+		// Fast-forward speed, when it's on
+		int speed = state.getSpeed();
+		if (speed != shownSpeed)
+		{
+			shownSpeed = speed;
+			speedText = speed + "x";
+		}
+		if (speed > 1)
+		{
+			g.setFont(PRICE_FONT);
+			g.drawString(speedText, 775, 496);
+		}
 		
 		// Prices
-		g.setFont(new Font("Arial", Font.PLAIN, 15));
+		g.setFont(PRICE_FONT);
+		if (TowerSprayMenu.getPrice() != shownSprayPrice || TowerBleachMenu.getPrice() != shownBleachPrice)
+		{
+			shownSprayPrice = TowerSprayMenu.getPrice();
+			shownBleachPrice = TowerBleachMenu.getPrice();
+			sprayPriceText = "$"+shownSprayPrice;
+			bleachPriceText = "$"+shownBleachPrice;
+		}
 //		g.drawString("$"+TowerSanitizerMenu.getPrice(), 660, 206);
 		g.drawString("$10", 660, 206); // leaving it as 10 until I implement the sanitizer tower and can make everything line up
-		g.drawString("$"+TowerSprayMenu.getPrice(), 775, 206);
-		g.drawString("$"+TowerBleachMenu.getPrice(), 658, 365);
+		g.drawString(sprayPriceText, 775, 206);
+		g.drawString(bleachPriceText, 658, 365);
 	}
 }
@@ -5,8 +5,10 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.image.BufferedImage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
@@ -19,13 +21,38 @@ import java.util.Scanner;
  * segment, or to find the a coordinate position given a percentage that has
  * been traversed.
  * 
+ * A path can also be baked (see <code>bake()</code>): sampled at evenly spaced
+ * points along its length into a flat array, so a position can be read
+ * straight out of the array instead of searching for the segment it's on.
+ * 
+ * The path also bakes a placement mask (see <code>setPlacementMask()</code>):
+ * the distance from every pixel of the field to the nearest point on the
+ * path, so checking whether a tower can go somewhere is a single array read.
+ * Baking it takes a while, so it's put off until the first time a tower's
+ * spot is checked, rather than slowing down loading the path.
+ * 
  * @author Caden Erickson
- * @version December 06, 2021
+ * @version December 23, 2021
  */
 public class Path
 {
 	// Fields
 	private List<Point> coords;
+	private double[] lengthTo;		// lengthTo[i] is the length of the path from the first coordinate to coordinate i
+	private double pathLength;
+	
+	// baked fields
+	private float[] samples;		// x and y of each evenly spaced point, interleaved (x0, y0, x1, y1, ...)
+	private int lastSample;			// index of the last sample (the end of the path), or -1 if not baked
+	private static final int SPAN_PADDING = 2;	// samples added to each end of a stretch from spansWithin()
+	
+	// placement mask fields
+	private volatile byte[] distanceField;	// distance from each pixel to the path, row by row, capped at 255, or null until baked
+	private int fieldWidth, fieldHeight;
+	private int clearance;			// how far from the path a tower has to be
+	private BufferedImage placementOverlay;	// the pixels too close to the path, shaded red- built when first asked for
+	private static final int MAX_DISTANCE = 255;
+	private static final int OVERLAY_COLOR = 0x50FF3030;	// translucent red, as ARGB
 
 	/**
 	 * The Path constructor does the following:
@@ -50,6 +77,41 @@ public class Path
 		{
 			coords.add(new Point(readIn.nextInt(), readIn.nextInt()));
 		}
+		
+		// Add up the segment lengths once, so positions can be looked up without
+		// walking the whole path every time
+		lengthTo = new double[numCoords];
+		for (int i = 1; i < numCoords; i++)
+		{
+			lengthTo[i] = lengthTo[i-1] + coords.get(i-1).distance(coords.get(i));
+		}
+		pathLength = numCoords > 0 ? lengthTo[numCoords - 1] : 0.0;
+		lastSample = -1;
+	}
+	
+	/**
+	 * Samples the path at evenly spaced points, no more than
+	 * <code>maxSpacing</code> pixels apart along its length, and stores them
+	 * for <code>getBakedPositionInto()</code> and the sample accessors. The
+	 * first sample is the start of the path and the last is its end.
+	 * 
+	 * @param maxSpacing the largest distance allowed between samples, in pixels
+	 */
+	public void bake(double maxSpacing)
+	{
+		int count = Math.max(2, (int)Math.ceil(pathLength / maxSpacing) + 1);
+		float[] baked = new float[count * 2];
+		double[] xy = new double[2];
+		
+		for (int i = 0; i < count; i++)
+		{
+			getPathPositionInto((double)i / (count - 1), xy);
+			baked[2*i] = (float)xy[0];
+			baked[2*i + 1] = (float)xy[1];
+		}
+		
+		samples = baked;
+		lastSample = count - 1;
 	}
 
 	/**
@@ -77,16 +139,6 @@ public class Path
 	 */
 	public double getPathLength()
 	{
-		double pathLength = 0.0;
-
-		//For each pair of Points in the array,
-		// use the Pythagorean theorem to calculate the
-		// distance between them, in pixels
-		for (int i = 0; i < coords.size() - 1; i++)
-		{
-			pathLength += coords.get(i).distance(coords.get(i+1));
-		}
-
 		return pathLength;
 	}
 
@@ -111,14 +163,23 @@ public class Path
 	 */
 	public Point getPathPosition(double percentTraveled)
 	{
-		Point position; 											// the coordinate we'll end up returning
-		double lengthTraveled = percentTraveled * getPathLength(); 	// the length we've been given as a percentage
-		double lengthChecked = 0.0; 								// how far along the path we've checked
-		double segmentLength = 0.0; 								// length of the segment we're working with
-		double segmentPortionLength, segmentPortionPercent; 		// length and percentage for the traveled portion of that segment
-		int posBefore = 0; 											// index for the coordinate before the point we're finding
-		double tempX, tempY; 										// variables for calculating the x and y of our point
+		double[] xy = new double[2];
+		getPathPositionInto(percentTraveled, xy);
+		return new Point((int) xy[0], (int) xy[1]);
+	}
 
+	/**
+	 * Does the same work as <code>getPathPosition()</code>, but writes the
+	 * (unrounded) x and y coordinates into the passed array instead of building a
+	 * new Point. Used by code that looks up positions every frame and doesn't want
+	 * to create garbage doing it.
+	 * 
+	 * @param percentTraveled a distance along the path
+	 * @param out             an array of at least length 2; x is stored at index
+	 *                        0 and y at index 1
+	 */
+	public void getPathPositionInto(double percentTraveled, double[] out)
+	{
 		// If the percentage isn't between 0.0 and 1.0, return the beginning or end
 		if (percentTraveled < 0.0)
 		{
@@ -128,38 +189,317 @@ public class Path
 		{
 			percentTraveled = 1.0;
 		}
-
-		// Find which segment we're in
-		//  In other words- between which two indices of the
-		//  coords arraylist are we at the moment?
-		for (int pos = 0; pos < coords.size() - 1; pos++)
-		{
-			// Add on the next segment
-			segmentLength = coords.get(pos).distance(coords.get(pos+1));
-			lengthChecked += segmentLength;
-
-			// If we've passed the point we're looking for
-			if (lengthChecked > lengthTraveled)
+		
+		double lengthTraveled = percentTraveled * pathLength; 	// the length we've been given as a percentage
+		
+		// Find which segment we're in with a binary search- the first segment
+		// whose far end is past the length we've traveled
+		int low = 0;
+		int high = lengthTo.length - 2;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (lengthTo[mid + 1] > lengthTraveled)
 			{
-				posBefore = pos;
-				break;
+				high = mid;
+			}
+			else
+			{
+				low = mid + 1;
 			}
 		}
-
+		int posBefore = low;
+		
 		// Find how far we are along that segment
-		segmentPortionLength = lengthTraveled - (lengthChecked - segmentLength);
-		segmentPortionPercent = segmentPortionLength / segmentLength;
-
+		double segmentLength = lengthTo[posBefore + 1] - lengthTo[posBefore];
+		double segmentPortionPercent = segmentLength > 0 ? (lengthTraveled - lengthTo[posBefore]) / segmentLength : 0.0;
+		if (segmentPortionPercent > 1.0)
+		{
+			segmentPortionPercent = 1.0;
+		}
+		
 		// Find the x and y positions
-		tempX = (1 - segmentPortionPercent) * (coords.get(posBefore).x)
-				+ (segmentPortionPercent)   * (coords.get(posBefore + 1).x);
-		tempY = (1 - segmentPortionPercent) * (coords.get(posBefore).y)
-				+ (segmentPortionPercent)   * (coords.get(posBefore + 1).y);
-
-		// Create our found point with those coordinate values
-		position = new Point((int) tempX, (int) tempY);
-
-		return position;
+		Point before = coords.get(posBefore);
+		Point after = coords.get(posBefore + 1);
+		out[0] = (1 - segmentPortionPercent) * before.x + segmentPortionPercent * after.x;
+		out[1] = (1 - segmentPortionPercent) * before.y + segmentPortionPercent * after.y;
+	}
+	
+	/**
+	 * Looks up a position in the baked samples: the two samples either side of
+	 * the percentage are read, and the position is placed between them. Only
+	 * corners cut between two samples are off from <code>getPathPositionInto()
+	 * </code>, by less than the sample spacing. Falls back to
+	 * <code>getPathPositionInto()</code> if the path hasn't been baked.
+	 * 
+	 * @param percentTraveled a distance along the path
+	 * @param out             an array of at least length 2; x is stored at index
+	 *                        0 and y at index 1
+	 */
+	public void getBakedPositionInto(double percentTraveled, double[] out)
+	{
+		if (lastSample < 0)
+		{
+			getPathPositionInto(percentTraveled, out);
+			return;
+		}
+		
+		if (percentTraveled < 0.0)
+		{
+			percentTraveled = 0.0;
+		}
+		else if (percentTraveled > 1.0)
+		{
+			percentTraveled = 1.0;
+		}
+		
+		double exact = percentTraveled * lastSample;
+		int i = Math.min((int)exact, lastSample - 1);
+		double between = exact - i;
+		
+		float x = samples[2*i], y = samples[2*i + 1];
+		out[0] = x + (samples[2*i + 2] - x) * between;
+		out[1] = y + (samples[2*i + 3] - y) * between;
+	}
+	
+	/**
+	 * Returns the index of the baked sample nearest to a percentage of the way
+	 * along the path.
+	 * 
+	 * @param percentTraveled a distance along the path, from 0.0 to 1.0
+	 * @return the sample index, from 0 to <code>getSampleCount() - 1</code>
+	 */
+	public int sampleIndex(double percentTraveled)
+	{
+		return (int)(Math.max(0.0, Math.min(1.0, percentTraveled)) * lastSample + 0.5);
+	}
+	
+	/**
+	 * Finds the stretches of the path that pass within <code>radius</code> of a
+	 * point, as percentages of the way along it. Each stretch is padded by a
+	 * couple of samples on either end, so an enemy in range is always inside
+	 * one- callers still check the actual distance. A stretch that reaches either
+	 * end of the path runs on to infinity past it.
+	 * 
+	 * @param center the <code>Point</code> to measure from
+	 * @param radius the distance, in pixels
+	 * @return the stretches as start, end pairs, in order along the path (empty
+	 *         if the path never comes that close)
+	 */
+	public double[] spansWithin(Point center, double radius)
+	{
+		double[] spans = new double[8];
+		int count = 0;
+		int runStart = -1;
+		double radiusSquared = radius * radius;
+		
+		for (int i = 0; i <= lastSample + 1; i++)
+		{
+			boolean inRange = false;
+			if (i <= lastSample)
+			{
+				double dx = samples[2*i] - center.x, dy = samples[2*i + 1] - center.y;
+				inRange = dx*dx + dy*dy < radiusSquared;
+			}
+			
+			if (inRange && runStart < 0)
+			{
+				runStart = i;
+			}
+			else if (!inRange && runStart >= 0)
+			{
+				if (count == spans.length)
+					spans = Arrays.copyOf(spans, count * 2);
+				
+				// Enemies can be a little before the start or past the end, where
+				// they sit on the end points, so stretches touching them run on
+				int start = runStart - SPAN_PADDING, end = i - 1 + SPAN_PADDING;
+				spans[count++] = start <= 0 ? Double.NEGATIVE_INFINITY : (double)start / lastSample;
+				spans[count++] = end >= lastSample ? Double.POSITIVE_INFINITY : (double)end / lastSample;
+				runStart = -1;
+			}
+		}
+		
+		return Arrays.copyOf(spans, count);
+	}
+	
+	public int getSampleCount()
+	{
+		return lastSample + 1;
+	}
+	
+	public float getSampleX(int index)
+	{
+		return samples[2*index];
+	}
+	
+	public float getSampleY(int index)
+	{
+		return samples[2*index + 1];
+	}
+	
+	/**
+	 * Sets the size of the field the placement mask covers, and how much
+	 * clearance towers need. The mask itself is baked the first time it's used.
+	 * 
+	 * @param width     the width of the field, in pixels
+	 * @param height    the height of the field, in pixels
+	 * @param clearance how far a tower has to be from the path to be placed, in
+	 *                  pixels
+	 */
+	public synchronized void setPlacementMask(int width, int height, int clearance)
+	{
+		fieldWidth = width;
+		fieldHeight = height;
+		this.clearance = clearance;
+		distanceField = null;
+		placementOverlay = null;
+	}
+	
+	/**
+	 * Returns the placement mask, baking it first if this is the first time it's
+	 * needed. Only one thread bakes it; any others asking at the same time wait
+	 * for it.
+	 */
+	private byte[] placementMask()
+	{
+		byte[] field = distanceField;
+		if (field == null)
+		{
+			synchronized (this)
+			{
+				field = distanceField;
+				if (field == null)
+				{
+					field = bakePlacementMask(fieldWidth, fieldHeight);
+					distanceField = field;
+				}
+			}
+		}
+		return field;
+	}
+	
+	/**
+	 * Works out how far every pixel of the field is from the nearest point on the
+	 * path (measured to the segments between the coordinates, not just the
+	 * coordinates themselves).
+	 */
+	private byte[] bakePlacementMask(int width, int height)
+	{
+		byte[] field = new byte[width * height];
+		int segments = coords.size() - 1;
+		
+		// Each segment's bounding box, so most segments can be ruled out for a
+		// pixel without working out the exact distance
+		int[] minX = new int[segments], maxX = new int[segments];
+		int[] minY = new int[segments], maxY = new int[segments];
+		for (int i = 0; i < segments; i++)
+		{
+			Point a = coords.get(i), b = coords.get(i+1);
+			minX[i] = Math.min(a.x, b.x);
+			maxX[i] = Math.max(a.x, b.x);
+			minY[i] = Math.min(a.y, b.y);
+			maxY[i] = Math.max(a.y, b.y);
+		}
+		
+		int closest = 0;	// the nearest segment to the last pixel, which is usually close to this one too
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				double nearest = Math.min(MAX_DISTANCE * MAX_DISTANCE,
+						segmentDistanceSquared(x, y, coords.get(closest), coords.get(closest+1)));
+				for (int i = 0; i < segments; i++)
+				{
+					// The segment can't be any closer than its bounding box
+					int boxX = Math.max(0, Math.max(minX[i] - x, x - maxX[i]));
+					int boxY = Math.max(0, Math.max(minY[i] - y, y - maxY[i]));
+					if (boxX*boxX + boxY*boxY >= nearest)
+						continue;
+					
+					double distance = segmentDistanceSquared(x, y, coords.get(i), coords.get(i+1));
+					if (distance < nearest)
+					{
+						nearest = distance;
+						closest = i;
+					}
+				}
+				field[y * width + x] = (byte)(int)Math.sqrt(nearest);
+			}
+		}
+		
+		return field;
+	}
+	
+	/**
+	 * Returns the squared distance from a pixel to the nearest point on the
+	 * segment between two coordinates.
+	 */
+	private static double segmentDistanceSquared(int x, int y, Point a, Point b)
+	{
+		double dx = b.x - a.x, dy = b.y - a.y;
+		double lengthSquared = dx*dx + dy*dy;
+		
+		// How far along the segment the nearest point is, from 0 (at a) to 1 (at b)
+		double t = lengthSquared > 0 ? ((x - a.x) * dx + (y - a.y) * dy) / lengthSquared : 0.0;
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		double nearX = a.x + t * dx - x;
+		double nearY = a.y + t * dy - y;
+		return nearX*nearX + nearY*nearY;
+	}
+	
+	/**
+	 * Returns how far a pixel is from the path, rounded down, from the placement
+	 * mask. Pixels off the field count as far away.
+	 * 
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the distance in pixels, up to 255
+	 */
+	public int distanceToPath(int x, int y)
+	{
+		if (x < 0 || y < 0 || x >= fieldWidth || y >= fieldHeight)
+			return MAX_DISTANCE;
+		return placementMask()[y * fieldWidth + x] & 0xFF;
+	}
+	
+	/**
+	 * Returns true if a tower can be placed at a pixel- if it's further from the
+	 * path than the clearance given to <code>setPlacementMask()</code>.
+	 * 
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return true if the spot is far enough from the path
+	 */
+	public boolean isPlaceable(int x, int y)
+	{
+		return distanceToPath(x, y) > clearance;
+	}
+	
+	/**
+	 * Returns an image the size of the field, with every spot a tower can't be
+	 * placed shaded red and the rest clear. Built from the placement mask the
+	 * first time it's asked for.
+	 * 
+	 * @return the overlay image
+	 */
+	public BufferedImage getPlacementOverlay()
+	{
+		if (placementOverlay == null)
+		{
+			byte[] distanceField = placementMask();
+			BufferedImage overlay = new BufferedImage(fieldWidth, fieldHeight, BufferedImage.TYPE_INT_ARGB);
+			int[] pixels = new int[fieldWidth * fieldHeight];
+			for (int i = 0; i < pixels.length; i++)
+			{
+				if ((distanceField[i] & 0xFF) <= clearance)
+					pixels[i] = OVERLAY_COLOR;
+			}
+			overlay.setRGB(0, 0, fieldWidth, fieldHeight, pixels, 0, fieldWidth);
+			placementOverlay = overlay;
+		}
+		return placementOverlay;
 	}
 	
 	/**
@@ -0,0 +1,351 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A <code>Profiler</code> object keeps track of where the game's time goes:
+ * how long each tick, update pass and frame takes, how long each kind of game
+ * object spends updating, how many nearest-enemy and first/last/strongest
+ * lookups are made, and how much memory each tick and frame allocates.
+ *
+ * Timings go into <code>Histogram</code>s. Once a second they're summed up
+ * into a short report and emptied, so the report always covers the last
+ * second. The report can be shown over the game (toggled with F3 or P), and
+ * appended to a file each second if the game is started with
+ * <code>-Dprofile.dump=filename</code>.
+ *
+ * Timing each object's update separately costs two clock reads per object,
+ * so that breakdown is only done while the overlay is showing or a dump file
+ * is set.
+ *
+ * Everything here is used from the simulation thread, apart from toggling
+ * the overlay.
+ *
+ * @author Caden Erickson
+ * @version December 19, 2021
+ */
+public class Profiler
+{
+	// Fields
+	// timing fields
+	private Histogram tickTimes, updateTimes, drawTimes;
+	private Histogram tickBytes, frameBytes;
+	private Map<Class<?>, ClassTiming> timingByClass;
+	private List<ClassTiming> classTimings;		// the same timings, in a list so they can be walked without iterators
+	private long nearestQueries, nearestQueriesThisTick;
+	private Histogram nearestPerTick;
+	private long targetingQueries, targetingQueriesThisTick;	// first, last and strongest lookups
+	private Histogram targetingPerTick;
+
+	// report fields
+	private List<String> report;
+	private long lastReportTime;
+	private volatile boolean overlayVisible;
+	private String dumpFile;
+	private static final long REPORT_NANOS = 1_000_000_000L;
+	private static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+	private static final Color OVERLAY_BACKGROUND = new Color(0f, 0f, 0f, 0.6f);
+
+	/**
+	 * Profiler constructor. Checks the <code>profile.dump</code> system property
+	 * for a file to append reports to.
+	 */
+	public Profiler()
+	{
+		tickTimes = new Histogram();
+		updateTimes = new Histogram();
+		drawTimes = new Histogram();
+		tickBytes = new Histogram();
+		frameBytes = new Histogram();
+		nearestPerTick = new Histogram();
+		targetingPerTick = new Histogram();
+		timingByClass = new IdentityHashMap<Class<?>, ClassTiming>();
+		classTimings = new ArrayList<ClassTiming>();
+
+		report = new ArrayList<String>();
+		lastReportTime = System.nanoTime();
+		dumpFile = System.getProperty("profile.dump");
+	}
+
+	/**
+	 * Returns true if each object's update should be timed on its own. Only
+	 * done while someone is looking at the results.
+	 *
+	 * @return true if the per-class breakdown is being collected
+	 */
+	public boolean isDetailed()
+	{
+		return overlayVisible || dumpFile != null;
+	}
+
+	// RECORDING
+	/**
+	 * Records one whole tick: how long it took, and how many bytes it allocated.
+	 * Also closes off the per-tick counts.
+	 *
+	 * @param nanos the time the tick took
+	 * @param bytes the bytes allocated during the tick
+	 */
+	public void recordTick(long nanos, long bytes)
+	{
+		tickTimes.record(nanos);
+		tickBytes.record(bytes);
+
+		nearestPerTick.record(nearestQueriesThisTick);
+		nearestQueriesThisTick = 0;
+		targetingPerTick.record(targetingQueriesThisTick);
+		targetingQueriesThisTick = 0;
+
+		for (int i = 0; i < classTimings.size(); i++)
+		{
+			ClassTiming timing = classTimings.get(i);
+			if (timing.thisTick > 0)
+			{
+				timing.times.record(timing.thisTick);
+				timing.thisTick = 0;
+			}
+		}
+	}
+
+	/**
+	 * Records the time taken by one <code>GameState.updateAll()</code> pass.
+	 *
+	 * @param nanos the time the update pass took
+	 */
+	public void recordUpdate(long nanos)
+	{
+		updateTimes.record(nanos);
+	}
+
+	/**
+	 * Adds to the time a class of game object has spent updating this tick.
+	 *
+	 * @param type  the class of the object that was updated
+	 * @param nanos the time its update took
+	 */
+	public void recordObjectUpdate(Class<?> type, long nanos)
+	{
+		ClassTiming timing = timingByClass.get(type);
+		if (timing == null)
+		{
+			timing = new ClassTiming(type);
+			timingByClass.put(type, timing);
+			classTimings.add(timing);
+		}
+		timing.thisTick += nanos;
+	}
+
+	/**
+	 * Records one frame drawn by <code>GameView.renderFrame()</code>.
+	 *
+	 * @param nanos the time the frame took to draw
+	 * @param bytes the bytes allocated while drawing it
+	 */
+	public void recordFrame(long nanos, long bytes)
+	{
+		drawTimes.record(nanos);
+		frameBytes.record(bytes);
+	}
+
+	/**
+	 * Counts one nearest-enemy lookup.
+	 */
+	public void countNearestQuery()
+	{
+		nearestQueries++;
+		nearestQueriesThisTick++;
+	}
+
+	/**
+	 * Counts one first, last or strongest enemy lookup.
+	 */
+	public void countTargetingQuery()
+	{
+		targetingQueries++;
+		targetingQueriesThisTick++;
+	}
+
+	// REPORTING
+	/**
+	 * Builds a new report if a second has passed since the last one, appends it
+	 * to the dump file if there is one, and starts the next second's histograms
+	 * fresh. Called from the simulation loop.
+	 *
+	 * @param state the game state, for counting objects by type
+	 */
+	public void update(GameState state)
+	{
+		long now = System.nanoTime();
+		if (now - lastReportTime < REPORT_NANOS)
+			return;
+		lastReportTime = now;
+
+		if (isDetailed())
+		{
+			report = buildReport(state);
+			if (dumpFile != null)
+			{
+				dump();
+			}
+		}
+
+		tickTimes.reset();
+		updateTimes.reset();
+		drawTimes.reset();
+		tickBytes.reset();
+		frameBytes.reset();
+		nearestPerTick.reset();
+		targetingPerTick.reset();
+		for (ClassTiming timing : classTimings)
+		{
+			timing.times.reset();
+		}
+	}
+
+	/**
+	 * Sums up the last second into lines of text.
+	 */
+	private List<String> buildReport(GameState state)
+	{
+		List<String> lines = new ArrayList<String>();
+		lines.add(String.format("%-16s %8s %8s %8s %6s", "(microseconds)", "p50", "p99", "max", "count"));
+		lines.add(timingLine("tick", tickTimes));
+		lines.add(timingLine("updateAll", updateTimes));
+		lines.add(timingLine("drawAll", drawTimes));
+		for (ClassTiming timing : classTimings)
+		{
+			if (timing.times.getCount() > 0)
+				lines.add(timingLine("  " + timing.type.getSimpleName(), timing.times));
+		}
+
+		lines.add(String.format("nearest-enemy queries: %.1f/tick (%d total)", nearestPerTick.getMean(),
+				nearestQueries));
+		lines.add(String.format("first/last/strongest queries: %.1f/tick (%d total)", targetingPerTick.getMean(),
+				targetingQueries));
+		lines.add(String.format("allocated: %.0f B/tick, %.0f B/frame", tickBytes.getMean(), frameBytes.getMean()));
+
+		// Count the game objects by type
+		Map<Class<?>, int[]> counts = new IdentityHashMap<Class<?>, int[]>();
+		for (Layer layer : Layer.values())
+		{
+			for (Animatable a : state.getLayer(layer))
+			{
+				counts.computeIfAbsent(a.getClass(), type -> new int[1])[0]++;
+			}
+		}
+		StringBuilder objects = new StringBuilder("objects:");
+		for (Map.Entry<Class<?>, int[]> entry : counts.entrySet())
+		{
+			objects.append(' ').append(entry.getKey().getSimpleName()).append('=').append(entry.getValue()[0]);
+		}
+		lines.add(objects.toString());
+
+		return lines;
+	}
+
+	private static String timingLine(String name, Histogram h)
+	{
+		return String.format("%-16s %8.1f %8.1f %8.1f %6d", name, h.percentile(50) / 1000.0,
+				h.percentile(99) / 1000.0, h.getMax() / 1000.0, h.getCount());
+	}
+
+	/**
+	 * Appends the latest report to the dump file.
+	 */
+	private void dump()
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(dumpFile, true)))
+		{
+			out.println("# " + java.time.LocalTime.now());
+			for (String line : report)
+			{
+				out.println(line);
+			}
+			out.println();
+		}
+		catch (IOException e)
+		{
+			System.out.println("Could not write the profile to " + dumpFile + ", no longer dumping.");
+			dumpFile = null;
+		}
+	}
+
+	/**
+	 * Draws the latest report in the top left corner of the field, if the
+	 * overlay is showing.
+	 *
+	 * @param g the <code>Graphics</code> context in which to paint
+	 */
+	public void drawOverlay(Graphics g)
+	{
+		if (!overlayVisible)
+			return;
+
+		g.setColor(OVERLAY_BACKGROUND);
+		g.fillRect(0, 0, 600, 16 + 14 * Math.max(1, report.size()));
+
+		g.setColor(Color.WHITE);
+		g.setFont(OVERLAY_FONT);
+		if (report.isEmpty())
+		{
+			g.drawString("collecting...", 8, 18);
+		}
+		for (int i = 0; i < report.size(); i++)
+		{
+			g.drawString(report.get(i), 8, 18 + 14 * i);
+		}
+	}
+
+	/**
+	 * Marks the area the overlay covers, if it's showing.
+	 *
+	 * @param region the region to mark
+	 */
+	public void addOverlayArea(DirtyRegion region)
+	{
+		if (overlayVisible)
+		{
+			region.add(0, 0, 600, 16 + 14 * Math.max(1, report.size()));
+		}
+	}
+
+	/**
+	 * Shows the overlay if it's hidden, and hides it if it's showing. Called
+	 * from Swing when the toggle key is pressed.
+	 */
+	public void toggleOverlay()
+	{
+		overlayVisible = !overlayVisible;
+	}
+
+	public boolean isOverlayVisible()
+	{
+		return overlayVisible;
+	}
+
+	/**
+	 * One class of game object's update time- the running total for the current
+	 * tick, and the histogram of per-tick totals.
+	 */
+	private static class ClassTiming
+	{
+		private final Class<?> type;
+		private long thisTick;
+		private final Histogram times;
+
+		private ClassTiming(Class<?> type)
+		{
+			this.type = type;
+			times = new Histogram();
+		}
+	}
+}
@@ -1,13 +1,33 @@
 package game;
 
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import tower.Tower;
 
 /**
  * A <code>ResourceLoader</code> object will load, store, and distribute all of
@@ -17,19 +37,31 @@ import java.util.Scanner;
  * Each resource will only be loaded once- if accessed or asked for again, the
  * object will be able to to return the previously loaded resource.
  * 
+ * Images can also be asked for as sprites- copies scaled to the size they are
+ * drawn at, in the screen's own pixel format. Each size is scaled only once, so
+ * drawing a sprite is a plain copy instead of a resize of the whole source
+ * image every frame.
+ * 
  * This class follows the Singleton pattern, so only one
  * <code>ResourceLoader</code> object will ever be built in a given execution.
  * 
+ * The loader is safe to use from several threads at once. Each image is held
+ * as a future, so even when two threads ask for the same image at the same
+ * time it is only decoded once, and <code>preloadImages()</code> can decode
+ * every image in the resources folder in parallel before the game needs them.
+ * 
  * @author Caden Erickson
- * @version November 22, 2021
+ * @version December 15, 2021
  */
 public class ResourceLoader
 {
 	// Fields
-	static private ResourceLoader instance;
-	private Map<String, BufferedImage> imageMap;
+	static private final ResourceLoader instance = new ResourceLoader();
+	private Map<String, CompletableFuture<BufferedImage>> imageMap;	// done once the image is decoded
+	private Map<String, List<BufferedImage>> spriteMap;	// every scaled size of each image made so far
 	private Map<String, Path> pathMap;
-	private Map<String, Scanner> enemyMap;
+	private Map<String, WaveProgram> waveMap;
+	private static final double PATH_SAMPLE_SPACING = 1.0;	// pixels of path length between baked samples
 
 	/**
 	 * Control method for this class following the Singleton pattern.
@@ -38,9 +70,6 @@ public class ResourceLoader
 	 */
 	static public ResourceLoader getLoader()
 	{
-		if (instance == null)
-			instance = new ResourceLoader();
-
 		return instance;
 	}
 
@@ -51,9 +80,10 @@ public class ResourceLoader
 	 */
 	private ResourceLoader()
 	{
-		imageMap = new HashMap<String, BufferedImage>();
-		pathMap  = new HashMap<String, Path>();
-		enemyMap = new HashMap<String, Scanner>();
+		imageMap  = new ConcurrentHashMap<String, CompletableFuture<BufferedImage>>();
+		spriteMap = new ConcurrentHashMap<String, List<BufferedImage>>();
+		pathMap   = new ConcurrentHashMap<String, Path>();
+		waveMap   = new ConcurrentHashMap<String, WaveProgram>();
 	}
 	
 	/**
@@ -66,29 +96,55 @@ public class ResourceLoader
 	 * @return the corresponding image, loaded as a <code>BufferedImage</code>.
 	 */
 	public BufferedImage getImage(String filename)
+	{
+		// If this image has already been loaded (or is being loaded), wait for it
+		// and return it
+		CompletableFuture<BufferedImage> image = imageMap.get(filename);
+		if (image != null)
+			return image.join();
+		
+		// Otherwise claim it- whichever thread gets its future into the map first
+		// does the decoding, and everyone else waits on that future
+		CompletableFuture<BufferedImage> claim = new CompletableFuture<BufferedImage>();
+		image = imageMap.putIfAbsent(filename, claim);
+		if (image != null)
+			return image.join();
+		
+		// If decoding fails, fail the claim too so anyone waiting on it isn't left
+		// waiting forever, and take it out of the map so the next caller tries again
+		try
+		{
+			claim.complete(readImage(filename));
+		}
+		catch (RuntimeException | Error e)
+		{
+			claim.completeExceptionally(e);
+			imageMap.remove(filename, claim);
+			throw e;
+		}
+		return claim.join();
+	}
+	
+	/**
+	 * Decodes an image from the resources folder.
+	 * 
+	 * @param filename the name of the image file, including file extension
+	 * @return the decoded image, or null if it couldn't be read
+	 * @throws IllegalArgumentException if there is no such file
+	 */
+	private BufferedImage readImage(String filename)
 	{
 		BufferedImage backdrop = null;
 		
-		// Load the backdrop image and path from the resources folder
+		// Load the image from the resources folder
     	try
     	{
-    		if(imageMap.containsKey(filename))
-    		{
-    			// If this image has already been loaded, just get it from the map and return it
-    			return imageMap.get(filename);
-    		}
-    		else
-    		{
-    			// Open a class loader and input stream with the given file name
-		    	ClassLoader loader = this.getClass().getClassLoader();
-		    	InputStream is = loader.getResourceAsStream("resources/" + filename);
-		    	backdrop = javax.imageio.ImageIO.read(is);
-		    	
-		    	//System.out.println("image loaded"); //debug
-		    	
-		    	// Put it in the map, keyed to the file name
-		    	imageMap.put(filename, backdrop);
-    		}
+			// Open a class loader and input stream with the given file name
+	    	ClassLoader loader = this.getClass().getClassLoader();
+	    	InputStream is = loader.getResourceAsStream("resources/" + filename);
+	    	backdrop = javax.imageio.ImageIO.read(is);
+	    	
+	    	//System.out.println("image loaded"); //debug
     	}
     	catch (IOException e)
     	{
@@ -98,6 +154,187 @@ public class ResourceLoader
     	return backdrop;
 	}
 	
+	/**
+	 * Starts decoding every image in the resources folder, in parallel, on a pool
+	 * of worker threads. Returns right away; the returned future is done once
+	 * every image is in the map. Images asked for before then are still returned
+	 * correctly- the caller just waits for that one image.
+	 * 
+	 * @return a future that completes when all of the images are loaded
+	 */
+	public CompletableFuture<Void> preloadImages()
+	{
+		List<String> filenames = listImages();
+		ExecutorService workers = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(filenames.size(), Runtime.getRuntime().availableProcessors())), task -> {
+					Thread worker = new Thread(task, "Image preload");
+					worker.setDaemon(true);
+					return worker;
+				});
+		
+		CompletableFuture<?>[] loads = new CompletableFuture<?>[filenames.size()];
+		for (int i = 0; i < loads.length; i++)
+		{
+			String filename = filenames.get(i);
+			loads[i] = CompletableFuture.runAsync(() -> getImage(filename), workers);
+		}
+		
+		CompletableFuture<Void> all = CompletableFuture.allOf(loads);
+		all.whenComplete((done, error) -> workers.shutdown());
+		return all;
+	}
+	
+	/**
+	 * Lists the names of the .png and .jpg files in the resources folder, whether
+	 * the game is running from a folder of classes or from a jar.
+	 * 
+	 * @return the image file names
+	 */
+	private List<String> listImages()
+	{
+		List<String> filenames = new ArrayList<String>();
+		URL folder = this.getClass().getClassLoader().getResource("resources");
+		if (folder == null)
+			return filenames;
+		
+		try
+		{
+			if (folder.getProtocol().equals("jar"))
+			{
+				JarFile jar = ((JarURLConnection)folder.openConnection()).getJarFile();
+				for (JarEntry entry : Collections.list(jar.entries()))
+				{
+					String name = entry.getName();
+					if (name.startsWith("resources/") && name.indexOf('/', "resources/".length()) < 0)
+						filenames.add(name.substring("resources/".length()));
+				}
+			}
+			else
+			{
+				String[] names = new File(folder.toURI()).list();
+				if (names != null)
+					Collections.addAll(filenames, names);
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		catch (URISyntaxException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		filenames.removeIf(name -> !name.endsWith(".png") && !name.endsWith(".jpg"));
+		return filenames;
+	}
+	
+	/**
+	 * Returns a specified image scaled to the specified size, ready to be drawn
+	 * 1:1. The first time a given size of an image is asked for, the scaled copy
+	 * is built and kept; after that, the same copy is returned.
+	 * 
+	 * @param filename the name of the image file, including file extension
+	 * @param width    the width the image will be drawn at
+	 * @param height   the height the image will be drawn at
+	 * @return the scaled image
+	 */
+	public BufferedImage getSprite(String filename, int width, int height)
+	{
+		List<BufferedImage> sizes = spriteMap.get(filename);
+		if (sizes == null)
+		{
+			sizes = spriteMap.computeIfAbsent(filename, name -> new CopyOnWriteArrayList<BufferedImage>());
+		}
+		
+		// Images are only drawn at a size or two, so a quick look through is enough
+		BufferedImage sprite = findSize(sizes, width, height);
+		if (sprite != null)
+			return sprite;
+		
+		// Scale it, unless another thread got there first
+		synchronized (sizes)
+		{
+			sprite = findSize(sizes, width, height);
+			if (sprite == null)
+			{
+				sprite = scaleImage(getImage(filename), width, height);
+				sizes.add(sprite);
+			}
+		}
+		return sprite;
+	}
+	
+	/**
+	 * Looks through the scaled copies of an image for one of the specified size.
+	 * 
+	 * @return the matching copy, or null if there isn't one yet
+	 */
+	private BufferedImage findSize(List<BufferedImage> sizes, int width, int height)
+	{
+		for (int i = 0; i < sizes.size(); i++)
+		{
+			BufferedImage sprite = sizes.get(i);
+			if (sprite.getWidth() == width && sprite.getHeight() == height)
+				return sprite;
+		}
+		return null;
+	}
+	
+	/**
+	 * Builds a copy of an image at the specified size, in a pixel format that's
+	 * quick to draw on this screen. Large shrinks are done in halving steps, so
+	 * the result is smooth rather than jagged.
+	 * 
+	 * @param source the full size image
+	 * @param width  the width to scale to
+	 * @param height the height to scale to
+	 * @return the scaled copy
+	 */
+	private BufferedImage scaleImage(BufferedImage source, int width, int height)
+	{
+		BufferedImage current = source;
+		int currentWidth = source.getWidth();
+		int currentHeight = source.getHeight();
+		
+		do
+		{
+			// Halve each side until the next step would pass the target size
+			currentWidth = Math.max(width, currentWidth / 2);
+			currentHeight = Math.max(height, currentHeight / 2);
+			if (currentWidth < width * 2 && currentHeight < height * 2)
+			{
+				currentWidth = width;
+				currentHeight = height;
+			}
+			
+			BufferedImage step = currentWidth == width && currentHeight == height
+					? createSpriteImage(width, height)
+					: new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = step.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+			g.dispose();
+			current = step;
+		}
+		while (currentWidth != width || currentHeight != height);
+		
+		return current;
+	}
+	
+	/**
+	 * Makes an empty, see-through image of the specified size, compatible with
+	 * the screen if there is one.
+	 */
+	private BufferedImage createSpriteImage(int width, int height)
+	{
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+	
 	/**
 	 * Returns a specified path from the map of loaded <code>Path</code> objects
 	 * contained in the single object of this class. If the path has not yet been
@@ -109,29 +346,41 @@ public class ResourceLoader
 	 * @return the corresponding path, loaded as a <code>Path</code> object.
 	 */
 	public Path getPath(String filename)
+	{
+		// If this path has already been loaded & created, just get it from the map and return it
+		Path currentPath = pathMap.get(filename);
+		if (currentPath != null)
+			return currentPath;
+		
+		// Otherwise load it, only once even if several threads ask at the same time
+		return pathMap.computeIfAbsent(filename, this::loadPath);
+	}
+	
+	/**
+	 * Loads a path from the resources folder.
+	 * 
+	 * @param filename the name of the path text file, including file extension
+	 * @return the new <code>Path</code> object
+	 */
+	private Path loadPath(String filename)
 	{
 		Path currentPath = null;
 		
-		// Load the backdrop image and path from the resources folder
+		// Load the path from the resources folder
     	try
 		{
-    		if(pathMap.containsKey(filename))
-    		{
-    			// If this path has already been loaded & created, just get it from the map and return it
-    			return pathMap.get(filename);
-    		}
-    		else
-    		{
-    			// Open a ClassLoader and Scanner with the given file name, create a Path object with the Scanner
-		    	ClassLoader loader = this.getClass().getClassLoader();		    	
-		    	Scanner pathScanner = new Scanner(loader.getResourceAsStream("resources/" + filename));
-		    	currentPath = new Path(pathScanner);
-		    	
-		    	//System.out.println("path loaded"); //debug
-		    	
-		    	// Put it in the map, keyed to the file name
-		    	pathMap.put(filename, currentPath);
-    		}
+			// Open a ClassLoader and Scanner with the given file name, create a Path object with the Scanner
+	    	ClassLoader loader = this.getClass().getClassLoader();		    	
+	    	Scanner pathScanner = new Scanner(loader.getResourceAsStream("resources/" + filename));
+	    	currentPath = new Path(pathScanner);
+	    	
+	    	// Sample it once per pixel of length, so enemies can read their positions from an array
+	    	currentPath.bake(PATH_SAMPLE_SPACING);
+	    	
+	    	// And say where on the field towers can go (worked out the first time a spot is checked)
+	    	currentPath.setPlacementMask(GameView.FIELD_WIDTH, GameView.FIELD_HEIGHT, Tower.PATH_CLEARANCE);
+	    	
+	    	//System.out.println("path loaded"); //debug
     	}
     	catch (NullPointerException e)
     	{
@@ -143,38 +392,44 @@ public class ResourceLoader
 	}
 	
 	/**
-	 * Returns a Scanner from the map of loaded <code>Scanner</code> objects
-	 * contained in the single object of this class, set up to read from the
-	 * specified text file. If the Scanner has not yet been loaded into the map,
-	 * this method will load it into the map and then return it.
+	 * Returns a specified wave program from the map of loaded
+	 * <code>WaveProgram</code> objects contained in the single object of this
+	 * class. If the enemy generation text file has not yet been parsed, this
+	 * method will parse it into the map and then return it. Programs are never
+	 * changed, so every game can share the same one- each reads it through its
+	 * own cursor.
 	 * 
-	 * @param startButtonFile a <code>String</code> containing the name of a text file
+	 * @param filename a <code>String</code> containing the name of a text file
 	 *                 (with file extension) containing enemy generation info
-	 * @return a <code>Scanner</code>, set up to read from the specified text file
+	 * @return the corresponding wave program
+	 */
+	public WaveProgram getWaveProgram(String filename)
+	{
+		// If this program has already been parsed, just get it from the map and return it
+		// (otherwise parse it, only once even if several threads ask at the same time)
+		return waveMap.computeIfAbsent(filename, this::loadWaveProgram);
+	}
+	
+	/**
+	 * Parses an enemy generation text file in the resources folder.
+	 * 
+	 * @param filename the name of the text file, including file extension
+	 * @return the parsed <code>WaveProgram</code>
 	 */
-	public Scanner getEnemyFile(String filename)
+	private WaveProgram loadWaveProgram(String filename)
 	{
-		Scanner currentFile = null;
+		WaveProgram program = null;
 		
 		// Load the enemy text file from the resources folder
     	try
 		{
-    		if(enemyMap.containsKey(filename))
-    		{
-    			// If this Scanner has already been loaded & created, just get it from the map and return it
-    			return enemyMap.get(filename);
-    		}
-    		else
-    		{
-    			// Open a ClassLoader and Scanner with the given file name
-		    	ClassLoader loader = this.getClass().getClassLoader();		    	
-		    	currentFile = new Scanner(loader.getResourceAsStream("resources/" + filename));
-		    	
-		    	//System.out.println("file scanner loaded"); //debug
-		    	
-		    	// Put it in the map, keyed to the file name
-		    	enemyMap.put(filename, currentFile);
-    		}
+			// Open a ClassLoader and Scanner with the given file name, and read the whole thing
+	    	ClassLoader loader = this.getClass().getClassLoader();		    	
+	    	Scanner enemyScanner = new Scanner(loader.getResourceAsStream("resources/" + filename));
+	    	program = new WaveProgram(enemyScanner);
+	    	enemyScanner.close();
+	    	
+	    	//System.out.println("wave program loaded"); //debug
     	}
     	catch (NullPointerException e)
     	{
@@ -182,6 +437,6 @@ public class ResourceLoader
     		System.exit(0);
     	}
 		
-		return currentFile;
+		return program;
 	}
 }
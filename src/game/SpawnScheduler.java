@@ -0,0 +1,94 @@
+package game;
+
+import enemy.EnemyPool;
+import screen.ScreenWaveTitle;
+
+/**
+ * A <code>SpawnScheduler</code> object plays a <code>WaveProgram</code> out
+ * against the game clock: each update, every opcode that has come due since
+ * the last one is carried out, however many there are. A long update (or a
+ * coarse time step) never leaves the spawns behind, and the program's own
+ * timing- bursts and waits included- is kept exactly. The enemies in a burst
+ * are each due a little after the last (see <code>WaveProgram</code>), so
+ * they come out at the start of the path one after another, like any other
+ * enemies.
+ *
+ * An enemy that comes due more than a tick before it's spawned is started as
+ * far along the path as it would have gone by then, so the spacing between
+ * enemies doesn't depend on how the time was split into updates.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+public class SpawnScheduler
+{
+	// Fields
+	private GameState state;
+	private WaveProgram.Cursor cursor;
+
+	/**
+	 * SpawnScheduler constructor. The program starts counting from a game time of
+	 * 0, when play starts.
+	 *
+	 * @param state   the <code>GameState</code> to spawn into
+	 * @param program the wave program to play
+	 */
+	public SpawnScheduler(GameState state, WaveProgram program)
+	{
+		this.state = state;
+		cursor = program.cursor();
+	}
+
+	/**
+	 * Carries out every opcode that is due by the specified game time, in order.
+	 *
+	 * @param now the current game time, in seconds
+	 */
+	public void spawnDue(double now)
+	{
+		while (cursor.hasNext() && now > cursor.nextTime())
+		{
+			double late = Math.max(0.0, now - cursor.nextTime() - GameControl.TICK);
+			carryOut(cursor.next(), late);
+		}
+	}
+
+	/**
+	 * Returns true if there are opcodes left to carry out.
+	 *
+	 * @return true if the program isn't finished
+	 */
+	public boolean hasNext()
+	{
+		return cursor.hasNext();
+	}
+
+	/**
+	 * Adds the enemies, announcement or end of the game that an opcode calls
+	 * for.
+	 *
+	 * @param opcode the opcode from the wave program
+	 * @param late   how long ago (past a tick) it was due, in seconds
+	 */
+	private void carryOut(int opcode, double late)
+	{
+		// 1 = pink, 2 = blue, 3 = green, 0 = spacer
+		// 9 marks the end of the enemy generation file
+		// Two-digits starting with 1 (11, 12, 13, etc) divide between waves
+		switch (opcode)
+		{
+			case WaveProgram.SPACER:
+				break;
+			case EnemyPool.PINK:
+			case EnemyPool.BLUE:
+			case EnemyPool.GREEN:
+				state.addGameObject(state.getEnemyPool().spawn(opcode, late * EnemyPool.speedOf(opcode)));
+				break;
+			case WaveProgram.END:
+				state.noMoreEnemies();
+				break;
+			default:
+				state.addGameObject(new ScreenWaveTitle(state, opcode));
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package game;
+
+import java.awt.Graphics;
+
+/**
+ * Classes that implement the StaticArt interface have artwork that never
+ * changes (like the path and the menu background). <code>GameView</code> draws
+ * it once into a cached image when the object joins the game, and copies that
+ * image under every frame, so it isn't drawn over and over.
+ * 
+ * @author Caden Erickson
+ * @version December 21, 2021
+ */
+public interface StaticArt
+{
+	public void drawStatic(Graphics g, GameView view);
+}
@@ -0,0 +1,20 @@
+package game;
+
+/**
+ * Classes that implement the Timed interface are objects waiting on something
+ * to happen after a set amount of game time- a tower's cooldown running out,
+ * or an effect reaching the end of its life. Instead of counting the time
+ * themselves every update, they hand a delay to
+ * <code>GameState.schedule()</code>, and are called back once it has passed.
+ *
+ * @author Caden Erickson
+ * @version December 26, 2021
+ */
+public interface Timed
+{
+	/**
+	 * Called once the delay passed to <code>GameState.schedule()</code> has gone
+	 * by, at the start of that update. May schedule itself again.
+	 */
+	public void timeUp();
+}
@@ -0,0 +1,274 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * A <code>TimingWheel</code> object keeps track of <code>Timed</code> objects
+ * waiting for an amount of game time to pass, and calls each one back when
+ * its time is up. Time is counted in ticks of a fixed length, and a timer
+ * goes off on the first tick that takes the time passed beyond its delay.
+ * Time passed is added up one tick length at a time, just as an object adding
+ * up its own elapsed time each update would, so a timer goes off on exactly
+ * the update a check like <code>lifeTime &gt; delay</code> would have.
+ *
+ * The wheel is hierarchical: the first level has a slot for each of the next
+ * 64 ticks, the second a slot for each of the next 64 spans of 64 ticks, and
+ * so on. Scheduling drops a timer straight into the slot for its tick, and
+ * each tick only looks at that tick's slot- so the cost of a tick depends on
+ * how many timers go off, not on how many are waiting. When the first level
+ * comes back around, the next level's slot for the coming 64 ticks is emptied
+ * into it (and likewise up the levels).
+ *
+ * Timers are stored in parallel arrays and reused, so scheduling doesn't
+ * create any garbage once the wheel has grown to fit the game.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+public class TimingWheel
+{
+	// Fields
+	// wheel geometry fields
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;	// slots per level
+	private static final int LEVELS = 4;				// 64^4 ticks- over three days at 60 ticks per second
+	private final double tickLength;	// seconds per tick
+
+	// timer storage fields- one entry per waiting timer, linked into lists by index
+	private Timed[] targets;
+	private long[] dueTick;
+	private int[] next;			// the next entry in the same slot (or the free list), or -1
+	private int freeEntry;		// the first unused entry, or -1 if all are in use
+	private int[] slotHead;		// the first entry in each slot, or -1, level by level
+	private int waiting;
+
+	// clock fields
+	private long currentTick;
+	private double leftover;	// time passed that doesn't add up to a whole tick yet
+
+	// delay fields- the same few delays are scheduled over and over, so the tick
+	// count for each is worked out once and kept
+	private static final int KNOWN_DELAYS = 16;
+	private final double[] knownDelay;
+	private final long[] knownTicks;
+	private int knownCount;
+
+	/**
+	 * TimingWheel constructor.
+	 *
+	 * @param tickLength the length of a tick, in seconds
+	 */
+	public TimingWheel(double tickLength)
+	{
+		this.tickLength = tickLength;
+
+		targets = new Timed[0];
+		dueTick = new long[0];
+		next = new int[0];
+		freeEntry = -1;
+		growEntries(64);
+
+		slotHead = new int[LEVELS * SLOTS];
+		Arrays.fill(slotHead, -1);
+
+		knownDelay = new double[KNOWN_DELAYS];
+		knownTicks = new long[KNOWN_DELAYS];
+	}
+
+	/**
+	 * Schedules a callback for once more than the specified amount of time has
+	 * passed. It goes off on the first tick that takes the time added up since
+	 * now past the delay, and always at least one tick from now.
+	 *
+	 * @param target the object to call back
+	 * @param delay  how long to wait, in seconds
+	 */
+	public void schedule(Timed target, double delay)
+	{
+		long ticks = ticksFor(delay);
+
+		if (freeEntry < 0)
+		{
+			growEntries(targets.length * 2);
+		}
+		int entry = freeEntry;
+		freeEntry = next[entry];
+
+		targets[entry] = target;
+		dueTick[entry] = currentTick + ticks;
+		file(entry);
+		waiting++;
+	}
+
+	/**
+	 * Moves the clock forward, calling back every timer whose time comes up
+	 * along the way, in tick order.
+	 *
+	 * @param elapsedTime the number of seconds to advance by
+	 */
+	public void advance(double elapsedTime)
+	{
+		leftover += elapsedTime;
+
+		// A hair under a whole tick still counts, so steps of exactly one tick
+		// don't drift behind from rounding
+		while (leftover > tickLength * 0.999)
+		{
+			leftover -= tickLength;
+			tick();
+		}
+	}
+
+	/**
+	 * Returns how much time the wheel has counted, in seconds. Unlike the game
+	 * clock, this is never reset.
+	 *
+	 * @return the time since the wheel was built
+	 */
+	public double getTime()
+	{
+		return currentTick * tickLength + leftover;
+	}
+
+	/**
+	 * Returns how many timers are waiting to go off.
+	 *
+	 * @return the number of scheduled timers
+	 */
+	public int getWaitingCount()
+	{
+		return waiting;
+	}
+
+	/**
+	 * Works out how many ticks it takes for the time passed to go beyond a delay,
+	 * adding up one tick length at a time. The rounding in that sum decides
+	 * whether a delay that's a whole number of ticks takes that many or one more,
+	 * so it's done the same way rather than divided out.
+	 *
+	 * @param delay the delay, in seconds
+	 * @return the number of ticks, at least one
+	 */
+	private long ticksFor(double delay)
+	{
+		for (int i = 0; i < knownCount; i++)
+		{
+			if (knownDelay[i] == delay)
+				return knownTicks[i];
+		}
+
+		long ticks = 1;
+		double passed = tickLength;
+		while (!(passed > delay) && ticks < Integer.MAX_VALUE)
+		{
+			passed += tickLength;
+			ticks++;
+		}
+
+		// Keep it, if there's still room
+		if (knownCount < KNOWN_DELAYS)
+		{
+			knownDelay[knownCount] = delay;
+			knownTicks[knownCount] = ticks;
+			knownCount++;
+		}
+		return ticks;
+	}
+
+	/**
+	 * Moves to the next tick: brings down any timers from the upper levels that
+	 * now fall within the first, then goes off for the timers in this tick's
+	 * slot.
+	 */
+	private void tick()
+	{
+		currentTick++;
+
+		// Each level turns one slot every time the level below comes back around
+		for (int level = 1; level < LEVELS; level++)
+		{
+			if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) != 0)
+				break;
+			refile(level * SLOTS + slotIndex(currentTick, level));
+		}
+
+		// Take the slot's list before going off, so timers that schedule themselves
+		// again land in a fresh list
+		int slot = slotIndex(currentTick, 0);
+		int entry = slotHead[slot];
+		slotHead[slot] = -1;
+
+		while (entry >= 0)
+		{
+			int following = next[entry];
+			Timed target = targets[entry];
+
+			targets[entry] = null;
+			next[entry] = freeEntry;
+			freeEntry = entry;
+			waiting--;
+
+			target.timeUp();
+			entry = following;
+		}
+	}
+
+	/**
+	 * Files every timer in an upper-level slot again, now that it's closer to
+	 * going off.
+	 */
+	private void refile(int slot)
+	{
+		int entry = slotHead[slot];
+		slotHead[slot] = -1;
+
+		while (entry >= 0)
+		{
+			int following = next[entry];
+			file(entry);
+			entry = following;
+		}
+	}
+
+	/**
+	 * Puts a timer into the slot for its tick, on the lowest level that reaches
+	 * that far ahead.
+	 */
+	private void file(int entry)
+	{
+		long ticksAway = dueTick[entry] - currentTick;
+
+		int level = 0;
+		while (level < LEVELS - 1 && ticksAway >= 1L << ((level + 1) * SLOT_BITS))
+		{
+			level++;
+		}
+
+		int slot = level * SLOTS + slotIndex(dueTick[entry], level);
+		next[entry] = slotHead[slot];
+		slotHead[slot] = entry;
+	}
+
+	// Helper for the slot a tick falls in on a level
+	private static int slotIndex(long tick, int level)
+	{
+		return (int)(tick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+	}
+
+	/**
+	 * Grows the entry arrays, adding the new entries to the free list.
+	 */
+	private void growEntries(int length)
+	{
+		int oldLength = targets.length;
+		targets = Arrays.copyOf(targets, length);
+		dueTick = Arrays.copyOf(dueTick, length);
+		next = Arrays.copyOf(next, length);
+
+		for (int i = length - 1; i >= oldLength; i--)
+		{
+			next[i] = freeEntry;
+			freeEntry = i;
+		}
+	}
+}
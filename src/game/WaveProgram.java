@@ -0,0 +1,309 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import enemy.EnemyPool;
+
+/**
+ * A <code>WaveProgram</code> object holds a whole enemy generation text file,
+ * parsed once into a flat array of opcodes, each with the time (from the start
+ * of the program) it's due.
+ *
+ * The opcodes are the same digits the text files use: 1, 2 and 3 spawn a pink,
+ * blue or green enemy, 0 is a spacer, 9 marks the end of the file, and
+ * two-digit numbers (11, 12, 13, etc) announce the start of a wave. Each one
+ * takes up a quarter second. Two more kinds of token can be mixed in:
+ * <code>NxT</code> is a burst of N enemies of type T, and <code>+S</code>
+ * waits S more seconds before the next opcode. A burst takes up one quarter
+ * second like a single enemy, but its enemies follow one another out, each
+ * one due once the last has moved <code>BURST_SPACING</code> along the path.
+ * The opcodes after a burst don't wait for it to finish, except the end of
+ * the file. Only enemies come in bursts (of 1 to <code>MAX_BURST</code>), and
+ * a wait can't be negative. The index of each wave announcement is kept too,
+ * so a game can skip straight to any wave.
+ *
+ * A program never changes once it's built, so one copy can be shared by any
+ * number of games (even on different threads). Each game reads it through its
+ * own <code>Cursor</code>.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+public class WaveProgram
+{
+	// Fields
+	// opcodes that aren't enemy types
+	public static final int SPACER = 0;
+	public static final int END = 9;
+	public static final int FIRST_WAVE_TITLE = 10;	// this and anything larger announces a wave
+	public static final double STEP = 0.25;			// seconds taken up by each opcode
+	public static final int MAX_BURST = 50;			// most enemies a single burst can spawn
+	public static final double BURST_SPACING = 0.005;	// fraction of the path between enemies in a burst
+
+	private final int[] opcodes;
+	private final double[] times;		// when each opcode is due, in seconds from the start of the program
+	private final int[] waveStarts;		// the index of each wave announcement, in order
+
+	/**
+	 * WaveProgram constructor. Reads every token from the passed Scanner.
+	 *
+	 * @param enemyScanner a <code>Scanner</code>, set up to read from an enemy
+	 *                     generation text file
+	 * @throws IllegalArgumentException if a token isn't an opcode, a burst or a
+	 *                                  wait, or is a burst or wait that's out of
+	 *                                  range
+	 */
+	public WaveProgram(Scanner enemyScanner)
+	{
+		List<Integer> waves = new ArrayList<Integer>();
+		int[] codes = new int[128];
+		double[] dueTimes = new double[128];
+		int count = 0;
+		double time = 0.0;
+		double latest = 0.0;	// when the last enemy so far is due, bursts included
+
+		while (enemyScanner.hasNext())
+		{
+			String token = enemyScanner.next();
+			
+			// A wait just pushes back everything after it
+			if (token.startsWith("+"))
+			{
+				time += parseSeconds(token, token.substring(1));
+				continue;
+			}
+			
+			int size = 1;
+			int opcode;
+			int x = token.indexOf('x');
+			if (x >= 0)
+			{
+				size = parseInteger(token, token.substring(0, x));
+				opcode = parseInteger(token, token.substring(x + 1));
+				if (size < 1 || size > MAX_BURST
+						|| (size > 1 && (opcode < EnemyPool.PINK || opcode > EnemyPool.GREEN)))
+				{
+					throw new IllegalArgumentException("Bad burst in enemy file: " + token);
+				}
+			}
+			else
+			{
+				opcode = parseInteger(token, token);
+			}
+			
+			// Each enemy in a burst is its own opcode, due once the one before it has
+			// moved BURST_SPACING along the path
+			for (int i = 0; i < size; i++)
+			{
+				if (count == codes.length)
+				{
+					codes = Arrays.copyOf(codes, count * 2);
+					dueTimes = Arrays.copyOf(dueTimes, count * 2);
+				}
+				codes[count] = opcode;
+				dueTimes[count] = i == 0 ? time : time + i * BURST_SPACING / EnemyPool.speedOf(opcode);
+				
+				// The end of the file waits for the last of any burst still coming out
+				if (opcode == END)
+				{
+					dueTimes[count] = Math.max(time, latest);
+				}
+				latest = Math.max(latest, dueTimes[count]);
+				count++;
+			}
+			time += STEP;
+		}
+
+		// The tail of a burst can be due after opcodes later in the file, so put
+		// everything in the order it's due (ties stay in file order)
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++)
+		{
+			order[i] = i;
+		}
+		double[] unsorted = dueTimes;
+		Arrays.sort(order, (a, b) -> Double.compare(unsorted[a], unsorted[b]));
+
+		opcodes = new int[count];
+		times = new double[count];
+		for (int i = 0; i < count; i++)
+		{
+			opcodes[i] = codes[order[i]];
+			times[i] = dueTimes[order[i]];
+			if (opcodes[i] >= FIRST_WAVE_TITLE)
+			{
+				waves.add(i);
+			}
+		}
+		waveStarts = new int[waves.size()];
+		for (int i = 0; i < waveStarts.length; i++)
+		{
+			waveStarts[i] = waves.get(i);
+		}
+	}
+
+	/**
+	 * Returns the number of opcodes in the program.
+	 *
+	 * @return the program length
+	 */
+	public int length()
+	{
+		return opcodes.length;
+	}
+
+	/**
+	 * Returns the opcode at the specified index.
+	 *
+	 * @param index the index of the opcode, from 0 to <code>length()</code> - 1
+	 * @return the opcode
+	 */
+	public int opcodeAt(int index)
+	{
+		return opcodes[index];
+	}
+
+	/**
+	 * Returns when the opcode at the specified index is due.
+	 *
+	 * @param index the index of the opcode
+	 * @return the time, in seconds from the start of the program
+	 */
+	public double timeAt(int index)
+	{
+		return times[index];
+	}
+
+	/**
+	 * Returns the number of waves announced in the program.
+	 *
+	 * @return the wave count
+	 */
+	public int getWaveCount()
+	{
+		return waveStarts.length;
+	}
+
+	/**
+	 * Returns the index of the opcode that announces the specified wave.
+	 *
+	 * @param wave the wave, counting from 0
+	 * @return the index of the wave's announcement
+	 */
+	public int getWaveStart(int wave)
+	{
+		return waveStarts[wave];
+	}
+
+	/**
+	 * Returns a new cursor, positioned at the start of the program.
+	 *
+	 * @return the new cursor
+	 */
+	public Cursor cursor()
+	{
+		return new Cursor();
+	}
+
+	// Helpers for reading the numbers out of a token, with an error naming the
+	// whole token if they aren't numbers
+	private static int parseInteger(String token, String number)
+	{
+		try
+		{
+			return Integer.parseInt(number);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Bad token in enemy file: " + token);
+		}
+	}
+
+	private static double parseSeconds(String token, String number)
+	{
+		double seconds;
+		try
+		{
+			seconds = Double.parseDouble(number);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Bad token in enemy file: " + token);
+		}
+
+		// NaN or infinity would stall the program forever, and a negative wait would
+		// put opcodes out of order
+		if (!Double.isFinite(seconds) || seconds < 0.0)
+		{
+			throw new IllegalArgumentException("Bad wait in enemy file: " + token);
+		}
+		return seconds;
+	}
+
+	/**
+	 * A <code>Cursor</code> object is one game's place in a
+	 * <code>WaveProgram</code>. Cursors are cheap- restarting or replaying a game
+	 * only takes a new cursor (or a rewind), not another trip through the file.
+	 */
+	public class Cursor
+	{
+		// Fields
+		private int position;
+
+		/**
+		 * Returns true if there are opcodes left to read.
+		 *
+		 * @return true if the cursor isn't at the end of the program
+		 */
+		public boolean hasNext()
+		{
+			return position < opcodes.length;
+		}
+
+		/**
+		 * Returns when the next opcode is due, without moving past it.
+		 *
+		 * @return the time, in seconds from the start of the program
+		 */
+		public double nextTime()
+		{
+			return times[position];
+		}
+
+		/**
+		 * Returns the next opcode, and moves past it.
+		 *
+		 * @return the next opcode
+		 */
+		public int next()
+		{
+			return opcodes[position++];
+		}
+
+		/**
+		 * Moves the cursor back to the start of the program.
+		 */
+		public void rewind()
+		{
+			position = 0;
+		}
+
+		/**
+		 * Moves the cursor to the announcement of the specified wave.
+		 *
+		 * @param wave the wave, counting from 0
+		 */
+		public void jumpToWave(int wave)
+		{
+			position = waveStarts[wave];
+		}
+
+		public int getPosition()
+		{
+			return position;
+		}
+	}
+}
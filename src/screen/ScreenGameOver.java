@@ -14,6 +14,9 @@ import game.*;
  */
 public class ScreenGameOver implements Animatable
 {
+	// Fields
+	private static final Color SHADE = new Color(0.1f, 0.1f, 0.1f, 0.65f);
+	
 	/** Constructor **/
 	public ScreenGameOver()
 	{
@@ -38,9 +41,9 @@ public class ScreenGameOver implements Animatable
 	public void draw(Graphics g, GameView view)
 	{
 		// semi-transparent rectangle to darken the screen a bit
-		g.setColor(new Color(0.1f, 0.1f, 0.1f, 0.65f));
+		g.setColor(SHADE);
 		g.fillRect(0, 0, 600, 600);
 		
-		g.drawImage(ResourceLoader.getLoader().getImage("game_over.png"), 0, 0, null);
+		g.drawImage(ResourceLoader.getLoader().getSprite("game_over.png", 600, 600), 0, 0, null);
 	}
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ public class ScreenStart implements Animatable
 	GameState state;
 	GameView view;
 	String startButtonFile;
+	private static final Point BUTTON_CENTER = new Point(425, 300);
 
 	/**
 	 * ScreenStart constructor. The object built of this class will have access to
@@ -102,6 +103,6 @@ public class ScreenStart implements Animatable
 		g.setColor(Color.BLACK);
 		g.fillRect(0, 0, 850, 600);
 
-		view.drawCenteredImage(g, startButtonFile, new Point(425, 300), 150, 150);
+		view.drawCenteredImage(g, startButtonFile, BUTTON_CENTER, 150, 150);
 	}
 }
\ No newline at end of file
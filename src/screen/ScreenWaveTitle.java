@@ -13,13 +13,29 @@ import game.*;
  * @author Caden Erickson
  * @version December 06, 2021
  */
-public class ScreenWaveTitle implements Animatable
+public class ScreenWaveTitle implements Animatable, Bounded, Timed, Idle
 {
 	// Fields
 	GameState state;
 	int waveNumber;
-	double lifeTime;
-	float opacity = 0.8f;
+	double shownAt;		// when the banner went up, by the GameState's timer clock
+	String title;
+	
+	// the banner starts at 0.8 opacity, and fades 2.4 per second (0.04 per 1/60th
+	// second tick) after its first second
+	private static final float START_OPACITY = 0.8f;
+	private static final float FADE_RATE = 2.4f;
+	private static final double FADE_DELAY = 1.0;
+	
+	private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 40);
+	private static final Color[] FADE = new Color[256];	// white, at every opacity from 0 to 255
+	static
+	{
+		for (int i = 0; i < FADE.length; i++)
+		{
+			FADE[i] = new Color(255, 255, 255, i);
+		}
+	}
 	
 	/**
 	 * ScreenWaveTitle constructor. Objects of this class will have access to the
@@ -32,39 +48,52 @@ public class ScreenWaveTitle implements Animatable
 	{
 		this.state = state;
 		waveNumber = waveIndicator % 10;
+		title = "WAVE "+waveNumber;
+		shownAt = state.getTimerTime();
+		state.schedule(this, FADE_DELAY + START_OPACITY / FADE_RATE);
 	}
 
 	/**
-	 * Updates the lifeTime of the banner. After 1 second, the opacity will
-	 * decrease. When the opacity reaches 0, this object will remove itself.
+	 * Nothing to update- the opacity comes from how long the banner has been up.
+	 * Banners are <code>Idle</code>, so the <code>GameState</code> doesn't call this.
 	 * 
-	 * @param timeElapsed the number of seconds since the last update
+	 * @param timeElapsed unused
 	 */
 	public void update(double timeElapsed)
 	{
-		lifeTime += timeElapsed;
-		
-		if (lifeTime > 1)
-		{
-			opacity -= 0.04f;
-		}
-		
-		if (opacity <= 0)
-		{
-			state.removeGameObject(this);
-		}
+	}
+	
+	/**
+	 * Removes the banner once it has faded out.
+	 */
+	public void timeUp()
+	{
+		state.removeGameObject(this);
+	}
+
+	/**
+	 * Marks the box around the banner's text.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(240, 280, 220, 50);
 	}
 
 	/**
-	 * Draws the announcement banner with the current opacity.
+	 * Draws the announcement banner with the current opacity. After 1 second, the
+	 * opacity decreases by FADE_RATE per second.
 	 * 
 	 * @param g    the <code>Graphics</code> context in which to paint
 	 * @param view the current <code>GameView</code> object, unused here
 	 */
 	public void draw(Graphics g, GameView view)
 	{
-		g.setColor(new Color(1.0f, 1.0f, 1.0f, opacity));
-		g.setFont(new Font("Arial", Font.BOLD, 40));
-		g.drawString("WAVE "+waveNumber, 250, 320);
+		double fadeTime = Math.max(0.0, state.getTimerTime() - shownAt - FADE_DELAY);
+		float opacity = START_OPACITY - FADE_RATE * (float)fadeTime;
+		g.setColor(FADE[Math.max(0, Math.min(255, Math.round(opacity * 255)))]);
+		g.setFont(TITLE_FONT);
+		g.drawString(title, 250, 320);
 	}
 }
@@ -18,6 +18,11 @@ public class ScreenWin implements Animatable
 {
 	// Fields
 	GameState state;
+	private String creditsText, livesText;	// built on the first draw- nothing changes once the game is won
+	
+	private static final Color PANEL_COLOR = new Color(0.0f, 0.5f, 0.2f);
+	private static final Font TITLE_FONT = new Font("arial", Font.BOLD, 50);
+	private static final Font TEXT_FONT = new Font("arial", Font.PLAIN, 30);
 	
 	/** Constructor **/
 	public ScreenWin(GameState state)
@@ -42,15 +47,20 @@ public class ScreenWin implements Animatable
 	public void draw(Graphics g, GameView view)
 	{
 		// Green panel
-		g.setColor(new Color(0.0f, 0.5f, 0.2f));
+		g.setColor(PANEL_COLOR);
 		g.fillRect(0, 0, 600, 600);
 		
 		g.setColor(Color.WHITE);
-		g.setFont(new Font("arial", Font.BOLD, 50));
+		g.setFont(TITLE_FONT);
 		g.drawString("You won!!!", 170, 270);
 		
-		g.setFont(new Font("arial", Font.PLAIN, 30));
-		g.drawString("Credits left over: $"+state.getCredits(), 160, 350);
-		g.drawString("Lives left: "+state.getLives(), 220, 380);		
+		if (creditsText == null)
+		{
+			creditsText = "Credits left over: $"+state.getCredits();
+			livesText = "Lives left: "+state.getLives();
+		}
+		g.setFont(TEXT_FONT);
+		g.drawString(creditsText, 160, 350);
+		g.drawString(livesText, 220, 380);		
 	}
 }
\ No newline at end of file
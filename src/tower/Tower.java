@@ -1,18 +1,31 @@
 package tower;
 
+import java.awt.Color;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Point;
 
+import enemy.Enemy;
 import game.*;
 
 /**
  * The <code>Tower</code> superclass contains fields and methods used by all
  * subclasses that extend this class.
  * 
+ * Attacking towers pick their victims with <code>findTarget()</code>, which
+ * follows the tower's targeting mode- the nearest enemy in range, the first
+ * or last one along the path, or the strongest. A sticky tower keeps
+ * attacking the same enemy until it dies or leaves range.
+ * 
+ * Cooldowns between attacks are scheduled with the <code>GameState</code>
+ * rather than counted every update: <code>startCooldown()</code> clears the
+ * ready flag, and <code>timeUp()</code> sets it again once the time has
+ * passed. Until then a tower has nothing to do.
+ * 
  * @author Caden Erickson
- * @version December 06, 2021
+ * @version December 28, 2021
  */
-public abstract class Tower implements Animatable
+public abstract class Tower implements Animatable, Bounded, Timed
 {
 	// Fields
 	protected GameState state;
@@ -21,7 +34,39 @@ public abstract class Tower implements Animatable
 	protected String name;			// name of image file associated with the current tower type
 	protected int width, height;	// width and height at which to display the image
 	
-
+	// shared by the towers that show their range and kills when clicked on
+	protected static final Color FOCUS_SHADE = new Color(0.1f, 0.1f, 0.1f, 0.3f);
+	protected static final Color RANGE_COLOR = new Color(0.9f, 0.9f, 0.7f, 0.3f);
+	protected static final Font FOCUS_FONT = new Font("arial", Font.PLAIN, 20);
+	
+	// shared by the towers being dragged from the menu
+	public static final int PATH_CLEARANCE = 40;	// how far from the path a tower has to be placed
+	protected static final Color PLACEABLE_COLOR = new Color(0.9f, 0.9f, 0.9f, 0.35f);
+	protected static final Color UNPLACEABLE_COLOR = new Color(0.9f, 0.2f, 0.2f, 0.35f);
+	
+	// targeting modes- which enemy in range a tower attacks
+	public static final int NEAREST = 0;
+	public static final int FIRST = 1;		// furthest along the path
+	public static final int LAST = 2;		// least far along the path
+	public static final int STRONGEST = 3;	// green, then blue, then pink
+	private static final String[] TARGETING_NAMES = {"nearest", "first", "last", "strongest"};
+	protected static final String[] TARGETING_TEXT = {"Targeting: nearest", "Targeting: first", "Targeting: last",
+			"Targeting: strongest"};	// for the towers that show their mode when clicked on
+	
+	// the button around the targeting mode in a focused tower's overlay, relative to the tower
+	protected static final int TARGETING_BUTTON_X = 70, TARGETING_BUTTON_Y = 10;
+	protected static final int TARGETING_BUTTON_WIDTH = 205, TARGETING_BUTTON_HEIGHT = 25;
+	
+	// attack fields
+	protected boolean ready;		// true once the cooldown since the last attack has run out
+	
+	// targeting fields
+	protected int targeting;
+	protected boolean sticky;
+	private Enemy target;			// the enemy a sticky tower is holding on to
+	private int targetGeneration;	// the target's generation when picked, so a recycled handle isn't mistaken for it
+	private double[] rangeSpans;	// the stretches of the path in range- worked out on the first lookup
+	private double spanRadius;		// the range rangeSpans was worked out for
 	
 	/**
 	 * Tower constructor. Objects built of classes that extend this superclass will
@@ -36,6 +81,123 @@ public abstract class Tower implements Animatable
 	{
 		this.state = state;
 		position = new Point(x, y);
+		ready = false;
+		targeting = NEAREST;
+		sticky = false;
+	}
+	
+	/**
+	 * Stops the tower from attacking until the specified amount of time has
+	 * passed.
+	 * 
+	 * @param seconds how long the tower has to wait
+	 */
+	protected void startCooldown(double seconds)
+	{
+		ready = false;
+		state.schedule(this, seconds);
+	}
+	
+	/**
+	 * Readies the tower to attack again, once its cooldown has run out.
+	 */
+	public void timeUp()
+	{
+		ready = true;
+	}
+	
+	/**
+	 * Picks the enemy this tower should attack, following its targeting mode. A
+	 * sticky tower keeps its last target for as long as it's alive and in range.
+	 * 
+	 * @param range how far the tower can reach, in pixels
+	 * @return the enemy to attack, or null if none are in range
+	 */
+	protected Enemy findTarget(double range)
+	{
+		if (sticky && target != null && target.getGeneration() == targetGeneration
+				&& !state.alreadyQueuedToDie(target) && position.distance(target.getPosition()) < range)
+		{
+			return target;
+		}
+		
+		if (targeting != NEAREST && (rangeSpans == null || spanRadius != range))
+		{
+			rangeSpans = ResourceLoader.getLoader().getPath("path.txt").spansWithin(position, range);
+			spanRadius = range;
+		}
+		
+		switch (targeting)
+		{
+			case FIRST:
+				target = state.firstEnemyWithin(position, range, rangeSpans);
+				break;
+			case LAST:
+				target = state.lastEnemyWithin(position, range, rangeSpans);
+				break;
+			case STRONGEST:
+				target = state.strongestEnemyWithin(position, range, rangeSpans);
+				break;
+			default:
+				target = state.nearestEnemyWithin(position, range);
+				break;
+		}
+		
+		if (target != null)
+			targetGeneration = target.getGeneration();
+		return target;
+	}
+	
+	/**
+	 * Switches to the next targeting mode, wrapping back around to NEAREST.
+	 */
+	public void cycleTargeting()
+	{
+		setTargeting((targeting + 1) % TARGETING_NAMES.length);
+	}
+	
+	/**
+	 * Returns true if the mouse was clicked on the targeting button in the
+	 * tower's focus overlay. Clicking the tower itself only brings it into
+	 * focus; the button is what switches targeting modes.
+	 * 
+	 * @return true if the click was inside the targeting button
+	 */
+	protected boolean targetingButtonClicked()
+	{
+		int x = state.getMouseX() - position.x;
+		int y = state.getMouseY() - position.y;
+		return x >= TARGETING_BUTTON_X && x <= TARGETING_BUTTON_X + TARGETING_BUTTON_WIDTH
+				&& y >= TARGETING_BUTTON_Y && y <= TARGETING_BUTTON_Y + TARGETING_BUTTON_HEIGHT;
+	}
+	
+	/**
+	 * Draws the targeting button- the current mode, boxed in. The color and font
+	 * are left as set by the caller.
+	 * 
+	 * @param g the <code>Graphics</code> context in which to paint
+	 */
+	protected void drawTargetingButton(Graphics g)
+	{
+		g.drawRect(position.x + TARGETING_BUTTON_X, position.y + TARGETING_BUTTON_Y, TARGETING_BUTTON_WIDTH,
+				TARGETING_BUTTON_HEIGHT);
+		g.drawString(TARGETING_TEXT[targeting], position.x + 75, position.y + 30);
+	}
+	
+	/**
+	 * Returns the targeting mode with the specified name.
+	 * 
+	 * @param name nearest, first, last or strongest
+	 * @return NEAREST, FIRST, LAST or STRONGEST
+	 */
+	public static int targetingFor(String name)
+	{
+		for (int i = 0; i < TARGETING_NAMES.length; i++)
+		{
+			if (TARGETING_NAMES[i].equals(name))
+				return i;
+		}
+		throw new IllegalArgumentException("Unknown targeting mode: " + name);
 	}
 	
 	/**
@@ -52,4 +214,52 @@ public abstract class Tower implements Animatable
 	{
 		view.drawCenteredImage(g, name, position, width, height);
 	}
+	
+	/**
+	 * Marks the box the tower's image is drawn in. <br>
+	 * Overloaded in tower classes that draw more than their image.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(position.x - width/2, position.y - height/2, width, height);
+	}
+	
+	public Point getPosition()
+	{
+		return position;
+	}
+	
+	public int getTargeting()
+	{
+		return targeting;
+	}
+	
+	public String getTargetingName()
+	{
+		return TARGETING_NAMES[targeting];
+	}
+	
+	/**
+	 * Sets how the tower picks its victims, and lets go of its current target.
+	 * 
+	 * @param targeting NEAREST, FIRST, LAST or STRONGEST
+	 */
+	public void setTargeting(int targeting)
+	{
+		this.targeting = targeting;
+		target = null;
+	}
+	
+	public boolean isSticky()
+	{
+		return sticky;
+	}
+	
+	public void setSticky(boolean sticky)
+	{
+		this.sticky = sticky;
+		target = null;
+	}
 }
\ No newline at end of file
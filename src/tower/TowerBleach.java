@@ -1,11 +1,9 @@
 package tower;
 
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
 
 import effect.EffectPuddle;
-import enemy.Enemy;
 import game.*;
 
 /**
@@ -22,14 +20,16 @@ import game.*;
 public class TowerBleach extends Tower
 {
 	// Fields
-	double timeSinceFire;
 	boolean inFocus;
 	int victims;
+	String victimsText;		// rebuilt on each kill, so drawing doesn't build it every frame
+	
+	private static final double COOLDOWN = 1.5;	// seconds between puddles
 	
 	/**
 	 * TowerBleach constructor. Objects built of this class will have functionality
-	 * given by the Enemy superclass, as well as values for name, width, height, and
-	 * how long it's been since they've fired an attack.
+	 * given by the Enemy superclass, as well as values for name, width, and height,
+	 * and start out waiting for their first cooldown.
 	 * 
 	 * @param state the current <code>GameState</code> object
 	 * @param x     the x coordinate
@@ -41,32 +41,36 @@ public class TowerBleach extends Tower
 		name = "bleach.png";
 		width = 30;
 		height = 50;
-		timeSinceFire = 0.0;
 		inFocus = true;
 		victims = 0;
+		victimsText = "Enemies killed: "+victims;
+		startCooldown(COOLDOWN);
 	}
 
 	/**
-	 * Updates the timeSinceFire variable, and detects nearby enemies, firing
-	 * at them and creating attack effects when in range.
+	 * Once the tower's cooldown has run out, looks for enemies in range, firing
+	 * at them and creating attack effects when there are any.
 	 * 
-	 * @param timeElapsed how many seconds since the last update
+	 * @param timeElapsed unused
 	 */
 	public void update(double timeElapsed)
 	{
-		timeSinceFire += timeElapsed;
-		
-		// If an enemy is in range, fire
-		Enemy victim = state.nearestEnemy(position);
-		if (victim != null && position.distance(victim.getPosition()) < 100 && timeSinceFire > 1.5)
+		// If the tower's ready and an enemy is in range, fire
+		if (ready && findTarget(100) != null)
 		{
 			state.addGameObject(new EffectPuddle(state, position, this));
-			timeSinceFire = 0;
+			startCooldown(COOLDOWN);
 		}
 		
 		if (state.isMouseClicked())
 		{
-			if (state.getMouseX() >= position.x - width / 2 && state.getMouseX() <= position.x + width / 2
+			// The targeting button in the overlay switches how the tower picks victims,
+			// and leaves it in focus
+			if (inFocus && targetingButtonClicked())
+			{
+				cycleTargeting();
+			}
+			else if (state.getMouseX() >= position.x - width / 2 && state.getMouseX() <= position.x + width / 2
 					&& state.getMouseY() >= position.y - width / 2 && state.getMouseY() <= position.y + height / 2)
 			{
 				inFocus = true;
@@ -82,21 +86,45 @@ public class TowerBleach extends Tower
 	{
 		if (inFocus)
 		{
-			g.setColor(new Color(0.1f, 0.1f, 0.1f, 0.3f));
+			g.setColor(FOCUS_SHADE);
 			g.fillRect(0, 0, 600, 600);
 			
-			g.setColor(new Color(0.9f, 0.9f, 0.7f, 0.3f));
+			g.setColor(RANGE_COLOR);
 			g.fillOval(position.x-60, position.y-60, 120, 120);
 			
 			g.setColor(Color.WHITE);
-			g.setFont(new Font("arial", Font.PLAIN, 20));
-			g.drawString("Enemies killed: "+victims, position.x + 75, position.y + 5);
+			g.setFont(FOCUS_FONT);
+			g.drawString(victimsText, position.x + 75, position.y + 5);
+			drawTargetingButton(g);
 		}
 		view.drawCenteredImage(g, name, position, width, height);
 	}
 	
+	/**
+	 * Marks the tower's image, plus the whole field, the kill count and the
+	 * targeting button while the tower is in focus.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		super.addDrawnArea(region);
+		if (inFocus)
+		{
+			region.add(0, 0, 600, 600);
+			region.add(position.x + TARGETING_BUTTON_X, position.y - 20, TARGETING_BUTTON_WIDTH + 1,
+					TARGETING_BUTTON_Y + TARGETING_BUTTON_HEIGHT + 21);
+		}
+	}
+	
 	public void incrementVictims()
 	{
 		victims++;
+		victimsText = "Enemies killed: "+victims;
+	}
+	
+	public int getVictims()
+	{
+		return victims;
 	}
 }
@@ -18,12 +18,12 @@ import game.GameState;
 public class TowerSanitizer extends Tower
 {
 	// Fields
-	double timeSinceFire;
+	private static final double COOLDOWN = 1.5;	// seconds between squirts
 
 	/**
 	 * TowerBleach constructor. Objects built of this class will have functionality
-	 * given by the Enemy superclass, as well as values for name, width, height, and
-	 * how long it's been since they've fired an attack.
+	 * given by the Enemy superclass, as well as values for name, width, and height,
+	 * and start out waiting for their first cooldown.
 	 * 
 	 * @param state the current <code>GameState</code> object
 	 * @param x     the x coordinate
@@ -35,24 +35,27 @@ public class TowerSanitizer extends Tower
 		name = "sanitizer.png";
 		width = 30;
 		height = 50;
-		timeSinceFire = 0.0;
+		startCooldown(COOLDOWN);
 	}
 
 	/**
-	 * Updates the timeSinceFire variable, and detects nearby enemies, firing
-	 * at them and creating attack effects when in range.
+	 * Once the tower's cooldown has run out, looks for enemies in range, firing
+	 * at them and creating attack effects when there are any.
 	 * 
-	 * @param timeElapsed how many seconds since the last update
+	 * @param timeElapsed unused
 	 */
 	public void update(double timeElapsed)
 	{
-		timeSinceFire += timeElapsed;
-		Enemy victim = state.nearestEnemy(position);
+		// Nothing to do until the cooldown has run out
+		if (!ready)
+			return;
+		
+		Enemy victim = findTarget(100);
 		// If an enemy is in range, fire
-		if (victim != null && position.distance(victim.getPosition()) < 100 && timeSinceFire > 1.5)
+		if (victim != null)
 		{
 			state.addGameObject(new EffectSquirt(state, position, victim.getPosition()));
-			timeSinceFire = 0;
+			startCooldown(COOLDOWN);
 		}
 	}
 }
@@ -1,7 +1,6 @@
 package tower;
 
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Point;
 
@@ -23,15 +22,17 @@ import game.*;
 public class TowerSpray extends Tower
 {
 	// Fields
-	double timeSinceFire;
 	boolean inFocus;
 	int victims;
+	String victimsText;		// rebuilt on each kill, so drawing doesn't build it every frame
 	
 	/**
 	 * Metric for adjusting the x value of the position when generating
 	 * a spray effect, so the effect is centered at the nozzle tip.
 	 */
 	int sprayLocationModifier;
+	
+	private static final double COOLDOWN = 0.9;	// seconds between sprays
 
 	
 	/**
@@ -49,51 +50,53 @@ public class TowerSpray extends Tower
 		name = "spray_right.png";
 		width = 50;
 		height = 50;
-		timeSinceFire = 0.0;
 		sprayLocationModifier = 13;
 		inFocus = true;
 		victims = 0;
+		victimsText = "Enemies killed: "+victims;
+		startCooldown(COOLDOWN);
 	}
 
 	/**
-	 * Updates the timeSinceFire variable, and detects nearby enemies, firing
-	 * at them and creating attack effects when in range.
-	 * Also flips the image based on the position of the nearest enemy.
+	 * Once the tower's cooldown has run out, looks for a victim in range, firing
+	 * at it and creating attack effects when there is one.
+	 * Also flips the image to face the enemy it fires at.
 	 * 
-	 * @param timeElapsed how many seconds since the last update
+	 * @param timeElapsed unused
 	 */
 	public void update(double timeElapsed)
 	{
-		timeSinceFire += timeElapsed;
-		
-		// Find the nearest victim, and only proceed if there's one close by
-		Enemy victim = state.nearestEnemy(position);
-		if (victim == null)
-			return;
-		
-		// Flips the image left and right, and adjusts the point from which the spray emanates accordingly
-		if (victim.getPosition().x < position.x && position.distance(victim.getPosition()) < 60)
-		{
-			name = "spray_left.png";
-			sprayLocationModifier = -13;
-		}
-		else if (victim.getPosition().x > position.x && position.distance(victim.getPosition()) < 60)
-		{
-			name = "spray_right.png";
-			sprayLocationModifier = 13;
-		}
-		
-		// If an enemy is in range, fire
-		if (position.distance(victim.getPosition()) < 60 && timeSinceFire > 0.9)
+		// Pick a victim, and only aim and fire if the tower's ready and there's one in range
+		Enemy victim = ready ? findTarget(60) : null;
+		if (victim != null)
 		{
+			// Flips the image left and right, and adjusts the point from which the spray emanates accordingly
+			if (victim.getPosition().x < position.x)
+			{
+				name = "spray_left.png";
+				sprayLocationModifier = -13;
+			}
+			else if (victim.getPosition().x > position.x)
+			{
+				name = "spray_right.png";
+				sprayLocationModifier = 13;
+			}
+			
+			// Fire, and wait for the cooldown
 			Point sprayPoint = new Point(position.x+sprayLocationModifier, position.y-25);
 			state.addGameObject(new EffectSpray(state, sprayPoint, victim.getPosition(), this));
-			timeSinceFire = 0;
+			startCooldown(COOLDOWN);
 		}
 		
 		if (state.isMouseClicked())
 		{
-			if (state.getMouseX() >= position.x - width / 2 && state.getMouseX() <= position.x + width / 2
+			// The targeting button in the overlay switches how the tower picks victims,
+			// and leaves it in focus
+			if (inFocus && targetingButtonClicked())
+			{
+				cycleTargeting();
+			}
+			else if (state.getMouseX() >= position.x - width / 2 && state.getMouseX() <= position.x + width / 2
 					&& state.getMouseY() >= position.y - width / 2 && state.getMouseY() <= position.y + height / 2)
 			{
 				inFocus = true;
@@ -109,21 +112,45 @@ public class TowerSpray extends Tower
 	{
 		if (inFocus)
 		{
-			g.setColor(new Color(0.1f, 0.1f, 0.1f, 0.3f));
+			g.setColor(FOCUS_SHADE);
 			g.fillRect(0, 0, 600, 600);
 			
-			g.setColor(new Color(0.9f, 0.9f, 0.7f, 0.3f));
+			g.setColor(RANGE_COLOR);
 			g.fillOval(position.x-60, position.y-60, 120, 120);
 			
 			g.setColor(Color.WHITE);
-			g.setFont(new Font("arial", Font.PLAIN, 20));
-			g.drawString("Enemies killed: "+victims, position.x + 75, position.y + 5);
+			g.setFont(FOCUS_FONT);
+			g.drawString(victimsText, position.x + 75, position.y + 5);
+			drawTargetingButton(g);
 		}
 		view.drawCenteredImage(g, name, position, width, height);
 	}
 	
+	/**
+	 * Marks the tower's image, plus the whole field, the kill count and the
+	 * targeting button while the tower is in focus.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		super.addDrawnArea(region);
+		if (inFocus)
+		{
+			region.add(0, 0, 600, 600);
+			region.add(position.x + TARGETING_BUTTON_X, position.y - 20, TARGETING_BUTTON_WIDTH + 1,
+					TARGETING_BUTTON_Y + TARGETING_BUTTON_HEIGHT + 21);
+		}
+	}
+	
 	public void incrementVictims()
 	{
 		victims++;
+		victimsText = "Enemies killed: "+victims;
+	}
+	
+	public int getVictims()
+	{
+		return victims;
 	}
 }
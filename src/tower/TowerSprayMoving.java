@@ -20,6 +20,7 @@ public class TowerSprayMoving extends Tower
 {
 	private int price;
 	private Color rangeColor;
+	private Path path;
 
 	/**
 	 * TowerSprayMoving constructor. Objects built of this class will have
@@ -38,7 +39,8 @@ public class TowerSprayMoving extends Tower
 		name = "spray_right.png";
 		width = 50;
 		height = 50;
-		rangeColor = new Color(0.9f, 0.9f, 0.9f, 0.35f);
+		rangeColor = PLACEABLE_COLOR;
+		path = ResourceLoader.getLoader().getPath("path.txt");
 	}
 
 	/**
@@ -55,11 +57,10 @@ public class TowerSprayMoving extends Tower
 		position.x = state.getMouseX();
 		position.y = state.getMouseY();
 		
-		double distanceToPath = ResourceLoader.getLoader().getPath("path.txt").nearestNodeDistance(position);
-		
-		if (distanceToPath > 40)
+		// Towers have to be placed clear of the path
+		if (path.isPlaceable(position.x, position.y))
 		{
-			rangeColor = new Color(0.9f, 0.9f, 0.9f, 0.35f);
+			rangeColor = PLACEABLE_COLOR;
 			if (state.isMouseClicked())
 			{
 				if (state.getMouseX() < 600) // only allow placement on the game field
@@ -76,7 +77,7 @@ public class TowerSprayMoving extends Tower
 		}
 		else
 		{
-			rangeColor = new Color(0.9f, 0.2f, 0.2f, 0.35f);
+			rangeColor = UNPLACEABLE_COLOR;
 		}
 	}
 	
@@ -86,16 +87,32 @@ public class TowerSprayMoving extends Tower
 	 * given by the x and y fields, with dimensions specified by the width and
 	 * height fields. Also draws a translucent circle underneath it that changes
 	 * color to indicate whether the current mouse position is a valid position at
-	 * which to place the tower.
+	 * which to place the tower, over a shading of every spot too close to the
+	 * path.
 	 * 
 	 * @param g    the <code>Graphics</code> context in which to paint
 	 * @param view the current <code>GameView</code> object
 	 */
 	public void draw(Graphics g, GameView view)
 	{
+		// Shade everywhere the tower can't go
+		g.drawImage(path.getPlacementOverlay(), 0, 0, null);
+		
 		g.setColor(rangeColor);
 		g.fillOval(position.x - 60, position.y - 60, 120, 120);
 		
 		view.drawCenteredImage(g, name, position, width, height);
 	}
+	
+	/**
+	 * Marks the field, which the placement shading covers, and the box around
+	 * the range circle, which the tower's image sits inside.
+	 * 
+	 * @param region the region to mark
+	 */
+	public void addDrawnArea(DirtyRegion region)
+	{
+		region.add(0, 0, 600, 600);
+		region.add(position.x - 60, position.y - 60, 120, 120);
+	}
 }
@@ -0,0 +1,55 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for <code>ResourceLoader</code>.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+class ResourceLoaderTest
+{
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	@Test
+	void loadsAnImageOnce()
+	{
+		ResourceLoader loader = ResourceLoader.getLoader();
+		assertNotNull(loader.getImage("splat.png"));
+		assertSame(loader.getImage("splat.png"), loader.getImage("splat.png"));
+	}
+
+	@Test
+	void missingImageFailsEveryTime()
+	{
+		ResourceLoader loader = ResourceLoader.getLoader();
+
+		// The second ask used to wait forever on the first one's claim
+		assertTimeoutPreemptively(TIMEOUT, () -> {
+			assertThrows(IllegalArgumentException.class, () -> loader.getImage("missing.png"));
+			assertThrows(IllegalArgumentException.class, () -> loader.getImage("missing.png"));
+		});
+	}
+
+	@Test
+	void missingImageFailsEveryWaiter()
+	{
+		ResourceLoader loader = ResourceLoader.getLoader();
+
+		assertTimeoutPreemptively(TIMEOUT, () -> {
+			CompletableFuture<?>[] asks = new CompletableFuture<?>[8];
+			for (int i = 0; i < asks.length; i++)
+				asks[i] = CompletableFuture.runAsync(() -> loader.getImage("also_missing.png"));
+
+			for (CompletableFuture<?> ask : asks)
+				assertThrows(CompletionException.class, ask::join);
+		});
+	}
+}
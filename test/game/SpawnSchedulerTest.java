@@ -0,0 +1,70 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import enemy.Enemy;
+
+/**
+ * Tests for <code>SpawnScheduler</code>.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+class SpawnSchedulerTest
+{
+	@Test
+	void burstMembersEnterAtTheStartOneAfterAnother()
+	{
+		GameState state = new GameState();
+		SpawnScheduler spawner = new SpawnScheduler(state, new WaveProgram(new Scanner("4x2 9")));
+		Set<Enemy> seen = Collections.newSetFromMap(new IdentityHashMap<Enemy, Boolean>());
+
+		// Tick the game along as GameControl does, for long enough to spawn the
+		// whole burst, and look at each enemy as it's added
+		for (int tick = 0; tick < 120; tick++)
+		{
+			spawner.spawnDue(state.getTime());
+			state.updateAll(0.0);
+
+			int added = 0;
+			for (Enemy e : state.getEnemies())
+			{
+				if (seen.add(e))
+				{
+					assertEquals(0.0, e.getPercentTraveled(), 1e-9);
+					added++;
+				}
+			}
+			assertTrue(added <= 1, "more than one burst member came out in a tick");
+
+			state.updateTime(GameControl.TICK);
+			state.updateAll(GameControl.TICK);
+		}
+
+		// By now they're strung out along the path, BURST_SPACING apart (give or
+		// take a tick's movement, since each comes out on the first tick it's due)
+		List<Enemy> enemies = state.getEnemies();
+		assertEquals(4, enemies.size());
+		double[] traveled = new double[enemies.size()];
+		for (int i = 0; i < traveled.length; i++)
+			traveled[i] = enemies.get(i).getPercentTraveled();
+		Arrays.sort(traveled);
+		for (int i = 1; i < traveled.length; i++)
+			assertEquals(WaveProgram.BURST_SPACING, traveled[i] - traveled[i - 1], 0.0005);
+
+		for (int i = 0; i < enemies.size(); i++)
+		{
+			for (int j = i + 1; j < enemies.size(); j++)
+				assertNotEquals(enemies.get(i).getPosition(), enemies.get(j).getPosition());
+		}
+	}
+}
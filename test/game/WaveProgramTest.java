@@ -0,0 +1,95 @@
+package game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import enemy.EnemyPool;
+
+/**
+ * Tests for parsing a <code>WaveProgram</code> from the text file format.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+class WaveProgramTest
+{
+	private static WaveProgram parse(String text)
+	{
+		return new WaveProgram(new Scanner(text));
+	}
+
+	@Test
+	void parsesOpcodesAndWaits()
+	{
+		WaveProgram program = parse("11 1 +2 0 1x12 9");
+
+		assertEquals(5, program.length());
+		assertEquals(2, program.getWaveCount());
+		assertEquals(12, program.opcodeAt(program.getWaveStart(1)));
+		assertEquals(WaveProgram.STEP, program.timeAt(1), 1e-9);
+		assertEquals(2.0 + 2 * WaveProgram.STEP, program.timeAt(2), 1e-9);
+	}
+
+	@Test
+	void burstMembersAreDueOneAfterAnother()
+	{
+		// Pinks are a quarter second apart once they've moved BURST_SPACING, so the
+		// blue after the burst comes out between its third and fourth members
+		WaveProgram program = parse("4x1 2");
+		double gap = WaveProgram.BURST_SPACING / EnemyPool.speedOf(EnemyPool.PINK);
+		int[] opcodes = {1, 1, 1, 2, 1};
+		double[] times = {0, gap, 2 * gap, WaveProgram.STEP, 3 * gap};
+
+		assertEquals(opcodes.length, program.length());
+		for (int i = 0; i < opcodes.length; i++)
+		{
+			assertEquals(opcodes[i], program.opcodeAt(i));
+			assertEquals(times[i], program.timeAt(i), 1e-9);
+		}
+	}
+
+	@Test
+	void endWaitsForTheLastBurstMember()
+	{
+		WaveProgram program = parse("3x3 9");
+		double gap = WaveProgram.BURST_SPACING / EnemyPool.speedOf(EnemyPool.GREEN);
+
+		assertEquals(WaveProgram.END, program.opcodeAt(3));
+		assertEquals(2 * gap, program.timeAt(3), 1e-9);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"+NaN", "+Infinity", "+-Infinity", "+-1", "+-0.25"})
+	void rejectsBadWaits(String token)
+	{
+		assertThrows(IllegalArgumentException.class, () -> parse("1 " + token + " 9"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"0x1", "-2x1", "51x2", "2x0", "2x9", "3x11", "2x-1"})
+	void rejectsBadBursts(String token)
+	{
+		assertThrows(IllegalArgumentException.class, () -> parse("1 " + token + " 9"));
+	}
+
+	@Test
+	void allowsSingleBurstOfAnyOpcode()
+	{
+		WaveProgram program = parse("1x11 1x0 50x1 1x9");
+
+		assertEquals(53, program.length());
+		assertEquals(1, program.getWaveCount());
+		assertEquals(WaveProgram.END, program.opcodeAt(52));
+	}
+
+	@Test
+	void allowsZeroWait()
+	{
+		assertEquals(WaveProgram.STEP, parse("1 +0 2").timeAt(1), 1e-9);
+	}
+}
@@ -0,0 +1,59 @@
+package tower;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import game.GameState;
+
+/**
+ * Tests that selecting a tower and switching its targeting mode are separate
+ * clicks.
+ *
+ * @author Caden Erickson
+ * @version December 28, 2021
+ */
+class TowerFocusTest
+{
+	private static void click(GameState state, Tower tower, int x, int y)
+	{
+		state.setMousePosition(x, y);
+		state.setMouseClicked();
+		state.latchMouseInput();
+		tower.update(0.0);
+		state.consumeMouseClick();
+	}
+
+	@Test
+	void clickingTheTowerOnlySelectsIt()
+	{
+		GameState state = new GameState();
+		TowerSpray tower = new TowerSpray(state, 300, 300);
+
+		click(state, tower, 300, 300);
+		click(state, tower, 300, 300);
+		click(state, tower, 300, 300);
+
+		assertTrue(tower.inFocus);
+		assertEquals(Tower.NEAREST, tower.getTargeting());
+	}
+
+	@Test
+	void targetingButtonSwitchesModes()
+	{
+		GameState state = new GameState();
+		TowerBleach tower = new TowerBleach(state, 300, 300);
+		int buttonX = 300 + Tower.TARGETING_BUTTON_X + 10;
+		int buttonY = 300 + Tower.TARGETING_BUTTON_Y + 10;
+
+		click(state, tower, buttonX, buttonY);
+		assertEquals(Tower.FIRST, tower.getTargeting());
+		assertTrue(tower.inFocus);
+
+		// Once out of focus the button is gone, so clicking where it was does nothing
+		click(state, tower, 10, 10);
+		click(state, tower, buttonX, buttonY);
+		assertFalse(tower.inFocus);
+		assertEquals(Tower.FIRST, tower.getTargeting());
+	}
+}